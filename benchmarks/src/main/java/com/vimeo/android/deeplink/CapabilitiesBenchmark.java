@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluating what an installed Vimeo app can handle, and checking it, with the app provided by an
+ * {@link InMemoryPackageInspector}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilitiesBenchmark {
+
+    private static final int VERSION_CODE = 200;
+    private static final String DEEPLINK_ACTIVITY = "com.vimeo.android.videoapp.DeeplinkActivity";
+    private static final String LAUNCH_ACTIVITY = "com.vimeo.android.videoapp.LaunchActivity";
+    private static final String PATH = "/videos/149058362";
+
+    private static final Destination[] DESTINATIONS = Destination.values();
+
+    private InMemoryPackageInspector mVersionCodes;
+    private InMemoryPackageInspector mIntentFilters;
+    private DeeplinkCapabilities mCapabilities;
+    private DeeplinkCapabilities mFilterCapabilities;
+    private VimeoAppState mResolvedState;
+
+    @Setup
+    public void setUp() {
+        mVersionCodes = new InMemoryPackageInspector()
+                .install(VimeoDeeplink.VIMEO_APP_PACKAGE, VERSION_CODE, DEEPLINK_ACTIVITY, LAUNCH_ACTIVITY);
+        mIntentFilters = new InMemoryPackageInspector()
+                .install(VimeoDeeplink.VIMEO_APP_PACKAGE, VERSION_CODE, DEEPLINK_ACTIVITY, LAUNCH_ACTIVITY)
+                .declareDestinationPaths();
+        mCapabilities = mVersionCodes.probe().mCapabilities;
+        mFilterCapabilities = mIntentFilters.probe().mCapabilities;
+
+        VimeoAppState state = mVersionCodes.probe();
+        for (Destination destination : DESTINATIONS) {
+            String samplePath = destination.samplePath();
+            if (samplePath != null) {
+                state = state.withDeeplinkActivity(DeeplinkPaths.shape(samplePath), DEEPLINK_ACTIVITY);
+            }
+        }
+        mResolvedState = state;
+    }
+
+    /**
+     * A cold lookup: the Vimeo app state and its capabilities from version codes
+     */
+    @Benchmark
+    public VimeoAppState probeVersionCodes() {
+        return mVersionCodes.probe();
+    }
+
+    /**
+     * A cold lookup: the Vimeo app state and its capabilities from intent filter data paths
+     */
+    @Benchmark
+    public VimeoAppState probeIntentFilters() {
+        return mIntentFilters.probe();
+    }
+
+    @Benchmark
+    public DeeplinkCapabilities evaluate() {
+        return DeeplinkCapabilities.evaluate(true, VERSION_CODE);
+    }
+
+    /**
+     * Every canHandle method of a screen, answered from one snapshot
+     */
+    @Benchmark
+    public void canHandleEveryDestination(final Blackhole blackhole) {
+        DeeplinkCapabilities capabilities = mCapabilities;
+        for (Destination destination : DESTINATIONS) {
+            blackhole.consume(capabilities.canHandle(destination));
+        }
+    }
+
+    @Benchmark
+    public boolean canHandlePathByRouting() {
+        return mCapabilities.canHandle(PATH);
+    }
+
+    @Benchmark
+    public boolean canHandlePathByIntentFilters() {
+        return mFilterCapabilities.canHandle(PATH);
+    }
+
+    /**
+     * The warm path of a launch: the shape of the path, and the activity handling it, already resolved
+     */
+    @Benchmark
+    public String resolvedDeeplinkActivity() {
+        return mResolvedState.deeplinkActivity(DeeplinkPaths.shape(PATH));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing links to their {@link Destination}, and translating vimeo.com urls to deep links
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+    @Param({"https://vimeo.com/149058362",
+            "https://www.vimeo.com/channels/staffpicks/149058362?autoplay=1",
+            "https://vimeo.com/showcase/3951",
+            "vimeo://app.vimeo.com/users/staff/albums",
+            "/watchlater",
+            "https://example.com/149058362"})
+    public String mLink;
+
+    private final DeeplinkRoute mRoute = new DeeplinkRoute();
+
+    /**
+     * Routing into a reused {@link DeeplinkRoute}, which shouldn't allocate
+     */
+    @Benchmark
+    public boolean route() {
+        return DeeplinkRouter.route(mLink, mRoute);
+    }
+
+    /**
+     * {@link VimeoDeeplink#toDeeplinkUri(CharSequence)}, minus the route it allocates
+     */
+    @Benchmark
+    public String toDeeplinkUri() {
+        if (DeeplinkRouter.route(mLink, mRoute) && mRoute.isWebUrl()) {
+            return DeeplinkUriBuilder.uri(mRoute);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The deep link uri every show method builds, one {@link Destination} at a time
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriBuildingBenchmark {
+
+    private static final long ID = 149058362L;
+    private static final int START_TIME_SECONDS = 30;
+
+    @State(Scope.Benchmark)
+    public static class DestinationState {
+
+        @Param({"VIDEO", "USER", "CATEGORY", "CHANNEL", "ON_DEMAND", "CATEGORIES", "EXPLORE", "ACCOUNT", "WATCH",
+                "FEED", "ME", "NOTIFICATIONS", "NOTIFICATION_SETTINGS", "OFFLINE", "PLAYLISTS", "PURCHASES",
+                "UPGRADE", "UPLOAD", "VIDEO_MANAGER", "ALBUMS", "WATCH_LATER"})
+        public Destination mDestination;
+
+        String mPath;
+
+        @Setup
+        public void setUp() {
+            mPath = mDestination.samplePath();
+        }
+    }
+
+    /**
+     * The uri of a show method taking a path, or the prebuilt uri of one that doesn't take a parameter
+     */
+    @Benchmark
+    public String showUri(final DestinationState state) {
+        Destination destination = state.mDestination;
+        return destination.isParameterized() ? destination.uriFor(state.mPath) : destination.uri();
+    }
+
+    @Benchmark
+    public String showVideoById() {
+        return DeeplinkUriBuilder.uri(VimeoDeeplink.VIMEO_VIDEO_URI_PREFIX, ID, DeeplinkUriBuilder.NO_START_TIME);
+    }
+
+    @Benchmark
+    public String showVideoByIdWithStartTime() {
+        return DeeplinkUriBuilder.uri(VimeoDeeplink.VIMEO_VIDEO_URI_PREFIX, ID, START_TIME_SECONDS);
+    }
+}
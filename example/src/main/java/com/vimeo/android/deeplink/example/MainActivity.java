@@ -24,6 +24,7 @@ package com.vimeo.android.deeplink.example;
 
 import android.os.Bundle;
 import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
 import android.support.v7.app.AppCompatActivity;
 import android.view.View;
 import android.widget.Button;
@@ -32,6 +33,8 @@ import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.Toast;
 
+import com.vimeo.android.deeplink.DeeplinkCapabilities;
+import com.vimeo.android.deeplink.Destination;
 import com.vimeo.android.deeplink.VimeoDeeplink;
 
 public class MainActivity extends AppCompatActivity {
@@ -92,6 +95,14 @@ public class MainActivity extends AppCompatActivity {
                 }
             };
 
+    private final DeeplinkCapabilities.Listener mCapabilitiesListener = new DeeplinkCapabilities.Listener() {
+        @Override
+        public void onCapabilitiesChanged(@NonNull DeeplinkCapabilities capabilities) {
+            // Vimeo was installed, updated or removed, rebuild the screen with the new capabilities
+            recreate();
+        }
+    };
+
     private final View.OnClickListener mGoClickListener = new View.OnClickListener() {
         @Override
         public void onClick(View v) {
@@ -114,25 +125,26 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
         mUriEditText = (EditText) findViewById(R.id.activity_main_edittext);
+        DeeplinkCapabilities capabilities = VimeoDeeplink.capabilities(this);
 
         RadioButton videoRadioButton = (RadioButton) findViewById(R.id.activity_main_video_radiobutton);
-        videoRadioButton.setEnabled(VimeoDeeplink.canHandleVideoDeeplink(this));
+        videoRadioButton.setEnabled(capabilities.canHandle(Destination.VIDEO));
         RadioButton userRadioButton = (RadioButton) findViewById(R.id.activity_main_user_radiobutton);
-        userRadioButton.setEnabled(VimeoDeeplink.canHandleUserDeeplink(this));
+        userRadioButton.setEnabled(capabilities.canHandle(Destination.USER));
         RadioButton categoryRadioButton = (RadioButton) findViewById(R.id.activity_main_category_radiobutton);
-        categoryRadioButton.setEnabled(VimeoDeeplink.canHandleCategoryDeeplink(this));
+        categoryRadioButton.setEnabled(capabilities.canHandle(Destination.CATEGORY));
         RadioButton channelRadioButton = (RadioButton) findViewById(R.id.activity_main_channel_radiobutton);
-        channelRadioButton.setEnabled(VimeoDeeplink.canHandleChannelDeeplink(this));
+        channelRadioButton.setEnabled(capabilities.canHandle(Destination.CHANNEL));
         RadioButton urlRadioButton = (RadioButton) findViewById(R.id.activity_main_url_radiobutton);
-        urlRadioButton.setEnabled(VimeoDeeplink.canHandleUrl(this, DEFAULT_VIDEO_URL));
+        urlRadioButton.setEnabled(capabilities.canHandle(Destination.URL));
         RadioButton vodRadioButton = (RadioButton) findViewById(R.id.activity_main_vod_radiobutton);
-        vodRadioButton.setEnabled(VimeoDeeplink.canHandleOnDemandDeeplink(this));
+        vodRadioButton.setEnabled(capabilities.canHandle(Destination.ON_DEMAND));
 
         RadioGroup radioGroup = (RadioGroup) findViewById(R.id.activity_main_radiogroup);
         radioGroup.setOnCheckedChangeListener(mCheckedChangeListener);
 
         mGoButton = configureButton(R.id.activity_main_go_button,
-                                    VimeoDeeplink.isVimeoAppInstalled(this),
+                                    capabilities.isVimeoAppInstalled(),
                                     mGoClickListener);
 
         configureButton(R.id.activity_main_launch_button,
@@ -156,7 +168,7 @@ public class MainActivity extends AppCompatActivity {
 
 
         configureButton(R.id.activity_main_categories_button,
-                        VimeoDeeplink.canHandleCategoiesDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.CATEGORIES),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -166,7 +178,7 @@ public class MainActivity extends AppCompatActivity {
 
 
         configureButton(R.id.activity_main_explore_button,
-                                           VimeoDeeplink.canHandleExploreDeeplink(MainActivity.this),
+                                           capabilities.canHandle(Destination.EXPLORE),
                                            new View.OnClickListener() {
                                                @Override
                                                public void onClick(View v) {
@@ -194,7 +206,7 @@ public class MainActivity extends AppCompatActivity {
 
 
         configureButton(R.id.activity_main_feed_button,
-                        VimeoDeeplink.canHandleFeedDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.FEED),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -204,7 +216,7 @@ public class MainActivity extends AppCompatActivity {
 
 
         configureButton(R.id.activity_main_me_button,
-                        VimeoDeeplink.canHandleMeDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.ME),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -213,7 +225,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_notification_button,
-                        VimeoDeeplink.canHandleNotificationsDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.NOTIFICATIONS),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -222,7 +234,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_notification_settings_button,
-                        VimeoDeeplink.canHandlePushNotificationSettingsDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.NOTIFICATION_SETTINGS),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -231,7 +243,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_playlists_button,
-                        VimeoDeeplink.canHandlePlaylistDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.PLAYLISTS),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -240,7 +252,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_upgrade_button,
-                        VimeoDeeplink.canHandleUpgradeDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.UPGRADE),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -249,7 +261,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_upload_button,
-                        VimeoDeeplink.canHandleUploadDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.UPLOAD),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -258,7 +270,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_offline_button,
-                        VimeoDeeplink.canHandleOfflineDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.OFFLINE),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -267,7 +279,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_watchlater_button,
-                        VimeoDeeplink.canHandleWatchLaterDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.WATCH_LATER),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -277,7 +289,7 @@ public class MainActivity extends AppCompatActivity {
 
 
         configureButton(R.id.activity_main_purchases_button,
-                        VimeoDeeplink.canHandlePurchaseDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.PURCHASES),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -286,7 +298,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_video_manager_button,
-                        VimeoDeeplink.canHandleVideoManagerDeeplink(MainActivity.this),
+                        capabilities.canHandle(Destination.VIDEO_MANAGER),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -295,7 +307,7 @@ public class MainActivity extends AppCompatActivity {
                         });
 
         configureButton(R.id.activity_main_albums_manager_button,
-                        VimeoDeeplink.canHandleAlbumsDeeplink(MainActivity.this, DEFAULT_ALBUM_URI_PATH),
+                        capabilities.canHandle(Destination.ALBUMS),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -305,7 +317,7 @@ public class MainActivity extends AppCompatActivity {
         mUserIdForAlbumEditText = ((EditText) findViewById(R.id.activity_user_id_albums_edit_text));
 
         configureButton(R.id.activity_main_albums_for_user_button,
-                        VimeoDeeplink.canHandleAlbumsDeeplink(MainActivity.this, getAlbumsForUserUri()),
+                        capabilities.canHandle(Destination.ALBUMS),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
@@ -316,13 +328,21 @@ public class MainActivity extends AppCompatActivity {
         mIdForAlbumEditText = ((EditText) findViewById(R.id.activity_user_id_album_edit_text));
 
         configureButton(R.id.activity_main_album_by_id,
-                        VimeoDeeplink.canHandleAlbumsDeeplink(MainActivity.this, getAlbumForId()),
+                        capabilities.canHandle(Destination.ALBUMS),
                         new View.OnClickListener() {
                             @Override
                             public void onClick(View v) {
                                 VimeoDeeplink.showAlbums(MainActivity.this, getAlbumForId());
                             }
                         });
+
+        VimeoDeeplink.subscribe(this, mCapabilitiesListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        VimeoDeeplink.unsubscribe(mCapabilitiesListener);
+        super.onDestroy();
     }
 
     private String getAlbumsForUserUri() {
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.ComponentName;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * The {@link PackageInspector} backed by the {@link PackageManager}. Resolution calls are marked as
+ * {@link DeeplinkInstrumentation#SECTION_RESOLVE} trace sections.
+ */
+final class AndroidPackageInspector implements PackageInspector {
+
+    @NonNull
+    private final PackageManager mPackageManager;
+    @NonNull
+    private final PackageProbe mProbe;
+    @NonNull
+    private final CapabilitySource mCapabilitySource;
+
+    AndroidPackageInspector(@NonNull final PackageManager packageManager,
+                            @NonNull final PackageProbe probe,
+                            @NonNull final CapabilitySource capabilitySource) {
+        mPackageManager = packageManager;
+        mProbe = probe;
+        mCapabilitySource = capabilitySource;
+    }
+
+    @NonNull
+    @Override
+    public VimeoAppState probe() {
+        VimeoAppState state = mProbe.probe(mPackageManager);
+        if (state.mInstalled) {
+            DeeplinkPathMatcher pathMatcher = mCapabilitySource.discover(mPackageManager, state.mPackageName);
+            if (pathMatcher != null) {
+                state = state.withPathMatcher(pathMatcher);
+            }
+        }
+        return state;
+    }
+
+    @NonNull
+    @Override
+    public VimeoAppState inspect(@NonNull final String packageName) {
+        return PackageProbe.probePackageInfo(mPackageManager, packageName);
+    }
+
+    @Nullable
+    @Override
+    public String resolveActivity(@Nullable final String packageName, @NonNull final String uri) {
+        Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(uri));
+        if (packageName != null) {
+            intent.setPackage(packageName);
+        }
+        boolean traced = DeeplinkInstrumentation.beginSection(DeeplinkInstrumentation.SECTION_RESOLVE);
+        try {
+            ComponentName component = intent.resolveActivity(mPackageManager);
+            return component != null ? component.getClassName() : null;
+        } finally {
+            DeeplinkInstrumentation.endSection(traced);
+        }
+    }
+
+    @Nullable
+    @Override
+    public String resolveLaunchActivity(@NonNull final String packageName) {
+        boolean traced = DeeplinkInstrumentation.beginSection(DeeplinkInstrumentation.SECTION_RESOLVE);
+        try {
+            Intent intent = mPackageManager.getLaunchIntentForPackage(packageName);
+            ComponentName component = intent != null ? intent.getComponent() : null;
+            return component != null ? component.getClassName() : null;
+        } finally {
+            DeeplinkInstrumentation.endSection(traced);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Asynchronous counterpart of {@link VimeoDeeplink}. Every call that may talk to the
+ * {@link android.content.pm.PackageManager} runs on the executor, and results are delivered to the callback on
+ * the main thread, so the UI thread never waits on the system server. Obtain an instance with
+ * {@link VimeoDeeplink#async(Executor)}.
+ * <p>
+ * A call that fails is reported to {@link Callback#onFailure(Throwable)} and through its future; it is never
+ * thrown on the main thread.
+ */
+public final class AsyncVimeoDeeplink {
+
+    /**
+     * Receives the result of an asynchronous call on the main thread
+     *
+     * @param <T> the type of the result
+     */
+    public interface Callback<T> {
+
+        @MainThread
+        void onResult(T result);
+
+        /**
+         * @param error what the call threw instead of returning a result
+         */
+        @MainThread
+        void onFailure(@NonNull Throwable error);
+    }
+
+    private final Executor mExecutor;
+    private final Handler mMainHandler;
+
+    AsyncVimeoDeeplink(@NonNull final Executor executor) {
+        mExecutor = executor;
+        mMainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * @param context  an Android {@link Context}
+     * @param callback receives true if the Vimeo app is installed, may be null if only the future is used
+     * @return a future of the result
+     * @see VimeoDeeplink#isVimeoAppInstalled(Context)
+     */
+    @NonNull
+    public Future<Boolean> isVimeoAppInstalled(@NonNull final Context context,
+                                               @Nullable final Callback<Boolean> callback) {
+        return submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return VimeoDeeplink.isVimeoAppInstalled(context);
+            }
+        }, callback);
+    }
+
+    /**
+     * @param context  an Android {@link Context}
+     * @param callback receives the capabilities of the installed Vimeo app, may be null if only the future is used
+     * @return a future of the result
+     * @see VimeoDeeplink#capabilities(Context)
+     */
+    @NonNull
+    public Future<DeeplinkCapabilities> capabilities(@NonNull final Context context,
+                                                     @Nullable final Callback<DeeplinkCapabilities> callback) {
+        return submit(new Callable<DeeplinkCapabilities>() {
+            @Override
+            public DeeplinkCapabilities call() {
+                return VimeoDeeplink.capabilities(context);
+            }
+        }, callback);
+    }
+
+    /**
+     * @param context     an Android {@link Context}
+     * @param destination a {@link Destination}
+     * @param callback    receives true if the Vimeo app can handle the destination, may be null
+     * @return a future of the result
+     */
+    @NonNull
+    public Future<Boolean> canHandle(@NonNull final Context context,
+                                     @NonNull final Destination destination,
+                                     @Nullable final Callback<Boolean> callback) {
+        return submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return VimeoDeeplink.capabilities(context).canHandle(destination);
+            }
+        }, callback);
+    }
+
+    /**
+     * Prepare the intent for a destination that doesn't take a parameter on the executor, then open it from the
+     * main thread
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @param callback    receives true if the Vimeo app was opened, may be null
+     * @return a future of the result
+     * @see VimeoDeeplink#show(Context, Destination)
+     */
+    @NonNull
+    public Future<Boolean> show(@NonNull final Context context,
+                                @NonNull final Destination destination,
+                                @Nullable final Callback<Boolean> callback) {
+        return show(context, destination, DeeplinkIntents.launchPolicy(), callback);
+    }
+
+    /**
+     * Like {@link #show(Context, Destination, Callback)}, with the {@link LaunchPolicy} of this launch
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @param policy      how the Vimeo app is opened if it already has a task
+     * @param callback    receives true if the Vimeo app was opened, may be null
+     * @return a future of the result
+     */
+    @NonNull
+    public Future<Boolean> show(@NonNull final Context context,
+                                @NonNull final Destination destination,
+                                @NonNull final LaunchPolicy policy,
+                                @Nullable final Callback<Boolean> callback) {
+        final long start = DeeplinkInstrumentation.now();
+        return start(context, destination, policy, start, new Callable<Intent>() {
+            @Override
+            public Intent call() {
+                return VimeoDeeplink.intentFor(context, destination, start);
+            }
+        }, callback);
+    }
+
+    /**
+     * Prepare the intent for a path of a parameterized destination on the executor, then open it from the main
+     * thread
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @param path        the path to open, which must start with {@link Destination#path()}
+     * @param callback    receives true if the Vimeo app was opened, may be null
+     * @return a future of the result
+     * @see VimeoDeeplink#show(Context, Destination, String)
+     */
+    @NonNull
+    public Future<Boolean> show(@NonNull final Context context,
+                                @NonNull final Destination destination,
+                                @NonNull final String path,
+                                @Nullable final Callback<Boolean> callback) {
+        return show(context, destination, path, DeeplinkIntents.launchPolicy(), callback);
+    }
+
+    /**
+     * Like {@link #show(Context, Destination, String, Callback)}, with the {@link LaunchPolicy} of this launch
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @param path        the path to open, which must start with {@link Destination#path()}
+     * @param policy      how the Vimeo app is opened if it already has a task
+     * @param callback    receives true if the Vimeo app was opened, may be null
+     * @return a future of the result
+     */
+    @NonNull
+    public Future<Boolean> show(@NonNull final Context context,
+                                @NonNull final Destination destination,
+                                @NonNull final String path,
+                                @NonNull final LaunchPolicy policy,
+                                @Nullable final Callback<Boolean> callback) {
+        final long start = DeeplinkInstrumentation.now();
+        return start(context, destination, policy, start, new Callable<Intent>() {
+            @Override
+            public Intent call() {
+                return VimeoDeeplink.intentFor(context, destination, path, start);
+            }
+        }, callback);
+    }
+
+    /**
+     * Open the Vimeo app to its launcher activity, resolving it on the executor
+     *
+     * @param context  an Android {@link Context}
+     * @param callback receives true if the Vimeo app was opened, may be null
+     * @return a future of the result
+     * @see VimeoDeeplink#openVimeoApp(Context)
+     */
+    @NonNull
+    public Future<Boolean> openVimeoApp(@NonNull final Context context, @Nullable final Callback<Boolean> callback) {
+        return start(context, null, null, 0L, new Callable<Intent>() {
+            @Override
+            public Intent call() {
+                return DeeplinkIntents.launchIntent(context);
+            }
+        }, callback);
+    }
+
+    /**
+     * Build the intent on the executor and start it on the main thread. The returned future completes once the
+     * activity has been started; cancelling it before then skips the launch. Launches of a destination are
+     * started with their {@code policy} and reported to the metrics, measured from {@code start}.
+     */
+    @NonNull
+    private Future<Boolean> start(@NonNull final Context context,
+                                  @Nullable final Destination destination,
+                                  @Nullable final LaunchPolicy policy,
+                                  final long start,
+                                  @NonNull final Callable<Intent> intentCallable,
+                                  @Nullable final Callback<Boolean> callback) {
+        final FutureTask<Intent> prepare = new FutureTask<>(intentCallable);
+        final FutureTask<Boolean> launch = new FutureTask<>(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                Intent intent;
+                try {
+                    intent = prepare.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw (Error) cause;
+                }
+                if (destination == null || policy == null) {
+                    return VimeoDeeplink.startVimeoActivity(context, intent);
+                }
+                return VimeoDeeplink.startVimeoActivity(context, destination, intent, policy, start);
+            }
+        });
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (launch.isCancelled()) {
+                    return;
+                }
+                prepare.run();
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        launch.run();
+                        deliver(launch, callback);
+                    }
+                });
+            }
+        });
+        return launch;
+    }
+
+    @NonNull
+    private <T> Future<T> submit(@NonNull final Callable<T> callable, @Nullable final Callback<T> callback) {
+        FutureTask<T> task = new FutureTask<T>(callable) {
+            @Override
+            protected void done() {
+                if (callback != null) {
+                    final FutureTask<T> task = this;
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            deliver(task, callback);
+                        }
+                    });
+                }
+            }
+        };
+        mExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * Hand a completed task's result, or what it threw, to the callback. Without a callback a failure is only
+     * reported through the task itself.
+     */
+    @MainThread
+    private static <T> void deliver(@NonNull final FutureTask<T> task, @Nullable final Callback<T> callback) {
+        if (callback == null || task.isCancelled()) {
+            return;
+        }
+        T result;
+        try {
+            result = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            callback.onFailure(e.getCause());
+            return;
+        }
+        callback.onResult(result);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.net.Uri;
+import android.os.PatternMatcher;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Where the deep links the Vimeo app can handle are learned from. Either source is evaluated once per version of
+ * the Vimeo app and cached, so {@link VimeoDeeplink#capabilities(android.content.Context)} stays as cheap.
+ */
+public enum CapabilitySource {
+
+    /**
+     * Compare the version code of the Vimeo app with the minimum version of each {@link Destination}. This makes
+     * no extra {@link PackageManager} calls, but trusts a table that has to be kept in step with the Vimeo app.
+     */
+    VERSION_CODES {
+        @Nullable
+        @Override
+        DeeplinkPathMatcher discover(@NonNull final PackageManager packageManager, @NonNull final String packageName) {
+            return null;
+        }
+    },
+
+    /**
+     * Read the data paths of the deep link intent filters the Vimeo app declares, and answer every check from
+     * them. Discovery asks the {@link PackageManager} for the filter that resolves a sample deep link of each
+     * {@link Destination} the filters found so far don't already cover, so usually only a few calls are made
+     * for each version of the Vimeo app.
+     */
+    INTENT_FILTERS {
+        @Nullable
+        @Override
+        DeeplinkPathMatcher discover(@NonNull final PackageManager packageManager, @NonNull final String packageName) {
+            DeeplinkPathMatcher matcher = new DeeplinkPathMatcher();
+            for (Destination destination : Destination.values()) {
+                String samplePath = destination == Destination.URL ? null : destination.samplePath();
+                if (samplePath == null || matcher.matches(samplePath)) {
+                    continue;
+                }
+                Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(destination.uriFor(samplePath)));
+                intent.setPackage(packageName);
+                List<ResolveInfo> handlers = packageManager.queryIntentActivities(
+                        intent, PackageManager.MATCH_DEFAULT_ONLY | PackageManager.GET_RESOLVED_FILTER);
+                for (int i = 0; handlers != null && i < handlers.size(); i++) {
+                    addDataPaths(matcher, handlers.get(i).filter);
+                }
+            }
+            return matcher;
+        }
+    };
+
+    /**
+     * @param packageManager the {@link PackageManager}
+     * @param packageName    the package of the installed Vimeo app
+     * @return the paths the Vimeo app handles, or null if capabilities come from version codes
+     */
+    @Nullable
+    abstract DeeplinkPathMatcher discover(@NonNull PackageManager packageManager, @NonNull String packageName);
+
+    private static void addDataPaths(@NonNull final DeeplinkPathMatcher matcher, @Nullable final IntentFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        int count = filter.countDataPaths();
+        if (count == 0) {
+            matcher.addAll();
+        }
+        for (int i = 0; i < count; i++) {
+            PatternMatcher dataPath = filter.getDataPath(i);
+            matcher.add(dataPath.getPath(), dataPath.getType());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * An immutable snapshot of the deep links the installed Vimeo app can handle. Each {@link Destination} is one
+ * bit of a {@code long}, so checking a capability does not touch the {@link android.content.pm.PackageManager}.
+ * With {@link CapabilitySource#INTENT_FILTERS} the bits, and checks of arbitrary paths, come from the intent
+ * filters of the Vimeo app rather than from its version code.
+ */
+public final class DeeplinkCapabilities {
+
+    /**
+     * Notified when the Vimeo app is installed, updated or removed in a way that changes its capabilities
+     */
+    public interface Listener {
+
+        /**
+         * @param capabilities a new snapshot of the deep links the Vimeo app can handle
+         */
+        @MainThread
+        void onCapabilitiesChanged(@NonNull DeeplinkCapabilities capabilities);
+    }
+
+    private final boolean mInstalled;
+    private final int mVersionCode;
+    private final long mBits;
+    @Nullable
+    private final DeeplinkPathMatcher mPathMatcher;
+
+    private DeeplinkCapabilities(final boolean installed,
+                                 final int versionCode,
+                                 final long bits,
+                                 @Nullable final DeeplinkPathMatcher pathMatcher) {
+        mInstalled = installed;
+        mVersionCode = versionCode;
+        mBits = bits;
+        mPathMatcher = pathMatcher;
+    }
+
+    /**
+     * Compare the version code against every {@link Destination} once and pack the results into a bitmask. An app
+     * that isn't installed can't handle anything, even though version code 0 is also the debug version.
+     *
+     * @param installed   whether the Vimeo app is installed
+     * @param versionCode the version code of the installed Vimeo app, 0 if it is not installed
+     * @return the capabilities of that version of the Vimeo app
+     */
+    @NonNull
+    static DeeplinkCapabilities evaluate(final boolean installed, final int versionCode) {
+        return evaluate(installed, versionCode, null);
+    }
+
+    /**
+     * Like {@link #evaluate(boolean, int)}, but when the intent filters of the Vimeo app are known each
+     * {@link Destination} is checked against them instead. Urls open in whichever app handles them, so they are
+     * still gated on the version code.
+     *
+     * @param installed   whether the Vimeo app is installed
+     * @param versionCode the version code of the installed Vimeo app, 0 if it is not installed
+     * @param pathMatcher the data paths of the deep link intent filters of the Vimeo app, null if not discovered
+     * @return the capabilities of that version of the Vimeo app
+     */
+    @NonNull
+    static DeeplinkCapabilities evaluate(final boolean installed,
+                                         final int versionCode,
+                                         @Nullable final DeeplinkPathMatcher pathMatcher) {
+        if (!installed) {
+            return new DeeplinkCapabilities(false, versionCode, 0L, pathMatcher);
+        }
+        long bits = 0L;
+        for (Destination destination : Destination.values()) {
+            boolean supported;
+            if (pathMatcher == null || destination == Destination.URL) {
+                supported = destination.isSupportedBy(versionCode);
+            } else {
+                supported = pathMatcher.matches(destination.samplePath());
+            }
+            if (supported) {
+                bits |= destination.bit();
+            }
+        }
+        return new DeeplinkCapabilities(installed, versionCode, bits, pathMatcher);
+    }
+
+    /**
+     * @param destination a deep link {@link Destination}
+     * @return true if the Vimeo app can handle a deep link to the destination
+     */
+    public boolean canHandle(@NonNull final Destination destination) {
+        return (mBits & destination.bit()) != 0;
+    }
+
+    /**
+     * Check a deep link path, e.g. "/videos/1234". With {@link CapabilitySource#INTENT_FILTERS} the path is
+     * matched against the intent filters of the Vimeo app in a single pass; otherwise it is routed to its
+     * {@link Destination}, which is then checked. Neither allocates.
+     *
+     * @param path a deep link path, starting with '/'
+     * @return true if the Vimeo app can handle a deep link to the path
+     */
+    public boolean canHandle(@NonNull final CharSequence path) {
+        if (mPathMatcher != null) {
+            return mInstalled && mPathMatcher.matches(path);
+        }
+        Destination destination = DeeplinkRouter.destination(path);
+        return destination != null && canHandle(destination);
+    }
+
+    /**
+     * @return true if the Vimeo app was installed when this snapshot was taken
+     */
+    public boolean isVimeoAppInstalled() {
+        return mInstalled;
+    }
+
+    /**
+     * @return the version code of the Vimeo app when this snapshot was taken, 0 if it was not installed
+     */
+    public int vimeoAppVersionCode() {
+        return mVersionCode;
+    }
+
+    /**
+     * @return the raw bitmask, where bit {@link Destination#ordinal()} is set if that destination can be handled
+     */
+    public long toBitmask() {
+        return mBits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DeeplinkCapabilities)) {
+            return false;
+        }
+        DeeplinkCapabilities that = (DeeplinkCapabilities) o;
+        return mInstalled == that.mInstalled && mVersionCode == that.mVersionCode && mBits == that.mBits;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mInstalled ? 1 : 0;
+        result = 31 * result + mVersionCode;
+        result = 31 * result + (int) (mBits ^ (mBits >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DeeplinkCapabilities{installed=" + mInstalled + ", versionCode=" + mVersionCode +
+               ", bits=" + Long.toBinaryString(mBits) + '}';
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Classifies many links at once against a single {@link DeeplinkCapabilities} snapshot: whether each one is a
+ * Vimeo link, which {@link Destination} it routes to, and whether the installed Vimeo app can open it.
+ * Links are routed with {@link DeeplinkRouter} into one reused {@link DeeplinkRoute}, so classifying doesn't
+ * allocate per link.
+ */
+public final class DeeplinkClassifier {
+
+    /**
+     * Below this many links per core, splitting the work across threads costs more than it saves
+     */
+    private static final int MIN_LINKS_PER_TASK = 256;
+
+    private static final Destination[] DESTINATIONS = Destination.values();
+
+    /**
+     * Receives the classification of each link of a stream
+     */
+    public interface Callback {
+
+        /**
+         * @param index     the position of the link in the stream
+         * @param link      the link
+         * @param route     the route of the link, whose destination is null if it isn't a Vimeo link. The route is
+         *                  reused for the next link, use {@link DeeplinkRoute#copy()} to keep it.
+         * @param supported true if the installed Vimeo app can open the link
+         */
+        void onClassified(int index,
+                          @NonNull CharSequence link,
+                          @NonNull DeeplinkRoute route,
+                          boolean supported);
+    }
+
+    /**
+     * The classification of a list of links, backed by primitive arrays indexed like the list
+     */
+    public static final class Classification {
+
+        /**
+         * {@link Destination#ordinal()} + 1 of each link, 0 if it isn't a Vimeo link
+         */
+        private final byte[] mDestinations;
+        private final long[] mIds;
+        private final boolean[] mSupported;
+
+        Classification(final int size) {
+            mDestinations = new byte[size];
+            mIds = new long[size];
+            mSupported = new boolean[size];
+        }
+
+        /**
+         * @return the number of classified links
+         */
+        public int size() {
+            return mDestinations.length;
+        }
+
+        /**
+         * @param index the position of the link
+         * @return true if the link routes to a {@link Destination}
+         */
+        public boolean isVimeoLink(final int index) {
+            return mDestinations[index] != 0;
+        }
+
+        /**
+         * @param index the position of the link
+         * @return the {@link Destination} of the link, null if it isn't a Vimeo link
+         */
+        @Nullable
+        public Destination destination(final int index) {
+            int destination = mDestinations[index];
+            return destination == 0 ? null : DESTINATIONS[destination - 1];
+        }
+
+        /**
+         * @param index the position of the link
+         * @return the numeric id in the link, or {@link DeeplinkRoute#NO_ID}
+         */
+        public long id(final int index) {
+            return mIds[index];
+        }
+
+        /**
+         * @param index the position of the link
+         * @return true if the installed Vimeo app can open the link
+         */
+        public boolean isSupported(final int index) {
+            return mSupported[index];
+        }
+
+        void classify(@NonNull final List<? extends CharSequence> links,
+                      @NonNull final DeeplinkCapabilities capabilities,
+                      final int start,
+                      final int end) {
+            DeeplinkRoute route = new DeeplinkRoute();
+            boolean installed = capabilities.isVimeoAppInstalled();
+            for (int i = start; i < end; i++) {
+                CharSequence link = links.get(i);
+                if (link != null && DeeplinkRouter.route(link, route)) {
+                    Destination destination = route.mDestination;
+                    mDestinations[i] = (byte) (destination.ordinal() + 1);
+                    mIds[i] = route.mId;
+                    mSupported[i] = installed && capabilities.canHandle(destination);
+                } else {
+                    mIds[i] = DeeplinkRoute.NO_ID;
+                }
+            }
+        }
+    }
+
+    /**
+     * Classify a list of links on the calling thread
+     *
+     * @param links        the links, null elements are classified as non-Vimeo links
+     * @param capabilities the capabilities of the installed Vimeo app
+     * @return the classification of every link
+     */
+    @NonNull
+    public static Classification classify(@NonNull final List<? extends CharSequence> links,
+                                          @NonNull final DeeplinkCapabilities capabilities) {
+        Classification classification = new Classification(links.size());
+        classification.classify(links, capabilities, 0, links.size());
+        return classification;
+    }
+
+    /**
+     * Classify a large list of links, splitting it across up to one task per available core on the executor.
+     * Small lists are classified on the calling thread. This blocks until every link is classified.
+     * <p>
+     * If classifying a link throws, e.g. because the list or a link failed, the exception is rethrown here once
+     * every task is done, as it would be on the calling thread, rather than returning a partial classification.
+     *
+     * @param links        the links, which must not be modified until this returns
+     * @param capabilities the capabilities of the installed Vimeo app
+     * @param executor     the executor to run the tasks on; it must not be bound to the calling thread
+     * @return the classification of every link
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the tasks
+     */
+    @NonNull
+    public static Classification classify(@NonNull final List<? extends CharSequence> links,
+                                          @NonNull final DeeplinkCapabilities capabilities,
+                                          @NonNull final Executor executor) throws InterruptedException {
+        int tasks = Math.min(Runtime.getRuntime().availableProcessors(), links.size() / MIN_LINKS_PER_TASK);
+        return classify(links, capabilities, executor, tasks);
+    }
+
+    /**
+     * @param tasks how many tasks to split the list into
+     * @see #classify(List, DeeplinkCapabilities, Executor)
+     */
+    @NonNull
+    static Classification classify(@NonNull final List<? extends CharSequence> links,
+                                   @NonNull final DeeplinkCapabilities capabilities,
+                                   @NonNull final Executor executor,
+                                   final int tasks) throws InterruptedException {
+        final int size = links.size();
+        if (tasks <= 1 || size < tasks) {
+            return classify(links, capabilities);
+        }
+        final Classification classification = new Classification(size);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        int chunk = (size + tasks - 1) / tasks;
+        final CountDownLatch latch = new CountDownLatch((size + chunk - 1) / chunk);
+        for (int start = 0; start < size; start += chunk) {
+            final int taskStart = start;
+            final int taskEnd = Math.min(size, start + chunk);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        classification.classify(links, capabilities, taskStart, taskEnd);
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+        Throwable cause = failure.get();
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else if (cause != null) {
+            throw new IllegalStateException(cause);
+        }
+        return classification;
+    }
+
+    /**
+     * Classify a stream of links, reporting each one to the callback as soon as it is classified
+     *
+     * @param links        the links, null elements are classified as non-Vimeo links
+     * @param capabilities the capabilities of the installed Vimeo app
+     * @param callback     the callback that receives each classification on the calling thread; it isn't called
+     *                     for null elements
+     */
+    public static void classify(@NonNull final Iterator<? extends CharSequence> links,
+                                @NonNull final DeeplinkCapabilities capabilities,
+                                @NonNull final Callback callback) {
+        DeeplinkRoute route = new DeeplinkRoute();
+        boolean installed = capabilities.isVimeoAppInstalled();
+        int index = 0;
+        while (links.hasNext()) {
+            CharSequence link = links.next();
+            if (link == null) {
+                index++;
+                continue;
+            }
+            boolean supported = DeeplinkRouter.route(link, route) && installed &&
+                                capabilities.canHandle(route.mDestination);
+            callback.onClassified(index++, link, route, supported);
+        }
+    }
+
+    private DeeplinkClassifier() {
+    }
+}
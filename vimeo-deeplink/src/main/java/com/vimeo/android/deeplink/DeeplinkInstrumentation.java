@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+
+/**
+ * Reports launch phases and outcomes to the {@link DeeplinkMetrics} set by the app, and marks the expensive steps
+ * of a launch as {@link Trace} sections so they show up by name in systrace and Perfetto. Both are off by
+ * default: timestamps are 0 while no metrics are set, and sections are skipped while tracing is off, so an
+ * unmonitored launch costs a volatile read per step and never reads the clock.
+ */
+final class DeeplinkInstrumentation {
+
+    static final String SECTION_PROBE = "VimeoDeeplink:probe";
+    static final String SECTION_PARSE = "VimeoDeeplink:Uri.parse";
+    static final String SECTION_RESOLVE = "VimeoDeeplink:resolveActivity";
+    static final String SECTION_START = "VimeoDeeplink:startActivity";
+
+    @Nullable
+    private static volatile DeeplinkMetrics sMetrics;
+    private static volatile boolean sTracing;
+
+    static void setMetrics(@Nullable final DeeplinkMetrics metrics) {
+        sMetrics = metrics;
+    }
+
+    static void setTracing(final boolean tracing) {
+        sTracing = tracing;
+    }
+
+    /**
+     * Begin a {@link Trace} section if tracing is on. The result must be passed to {@link #endSection(boolean)} on
+     * the same thread, e.g. in a finally block, so that a section is only ended if it was begun even if tracing is
+     * turned on or off in between.
+     *
+     * @param name one of the {@code SECTION_*} names
+     * @return true if a section was begun
+     */
+    static boolean beginSection(@NonNull final String name) {
+        if (sTracing && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            TraceCompat.beginSection(name);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param begun what the matching {@link #beginSection(String)} returned
+     */
+    static void endSection(final boolean begun) {
+        if (begun && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            TraceCompat.endSection();
+        }
+    }
+
+    /**
+     * @return the current time to measure from, or 0 if no metrics are set
+     */
+    static long now() {
+        return sMetrics != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * @param since the time the phase started, from {@link #now()} or a previous phase
+     * @return the time the phase ended, to measure the next phase from
+     */
+    static long phase(@NonNull final Destination destination,
+                      @NonNull final DeeplinkMetrics.Phase phase,
+                      final long since) {
+        DeeplinkMetrics metrics = sMetrics;
+        if (metrics == null || since == 0L) {
+            // Metrics were set part way through this launch, so there is nothing to measure from
+            return 0L;
+        }
+        long now = System.nanoTime();
+        metrics.onPhase(destination, phase, now - since);
+        return now;
+    }
+
+    /**
+     * @param start the time the launch started, from {@link #now()}
+     */
+    static void outcome(@NonNull final Destination destination,
+                        @NonNull final DeeplinkMetrics.Outcome outcome,
+                        final long start) {
+        DeeplinkMetrics metrics = sMetrics;
+        if (metrics != null && start != 0L) {
+            metrics.onOutcome(destination, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private DeeplinkInstrumentation() {
+    }
+
+    /**
+     * Keeps the {@link Trace} references out of {@link DeeplinkInstrumentation} so it still verifies below API 18
+     */
+    @RequiresApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static final class TraceCompat {
+
+        static void beginSection(@NonNull final String name) {
+            Trace.beginSection(name);
+        }
+
+        static void endSection() {
+            Trace.endSection();
+        }
+
+        private TraceCompat() {
+        }
+    }
+}
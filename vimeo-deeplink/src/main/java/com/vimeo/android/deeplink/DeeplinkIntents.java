@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Builds explicit intents into the Vimeo app. The activity that handles each
+ * {@link DeeplinkPaths#shape(CharSequence) shape} of deep link path, and the launcher activity, are resolved once
+ * per Vimeo app version and published with the {@link VimeoAppState}, so that later launches skip intent
+ * resolution entirely.
+ * <p>
+ * Deep link intents carry no launch flags; the {@link LaunchPolicy} of each launch adds them when it is started.
+ */
+final class DeeplinkIntents {
+
+    private static volatile LaunchPolicy sLaunchPolicy = LaunchPolicy.CLEAR_TASK;
+
+    /**
+     * @return the {@link LaunchPolicy} of launches that don't choose their own
+     */
+    @NonNull
+    static LaunchPolicy launchPolicy() {
+        return sLaunchPolicy;
+    }
+
+    static void setLaunchPolicy(@NonNull final LaunchPolicy policy) {
+        sLaunchPolicy = policy;
+    }
+
+    /**
+     * @param context an Android {@link Context}
+     * @param uri     the deep link uri
+     * @return an intent pinned to the Vimeo app activity that handles the uri, or null if the Vimeo app can't
+     * handle it
+     */
+    @Nullable
+    static Intent deeplinkIntent(@NonNull final Context context, @NonNull final Uri uri) {
+        VimeoAppState state = VimeoAppStateCache.get(context);
+        if (!state.mInstalled) {
+            return null;
+        }
+        String shape = DeeplinkPaths.shape(uri.getPath());
+        String className = state.deeplinkActivity(shape);
+        if (className == null) {
+            className = VimeoAppStateCache.inspector(context).resolveActivity(state.mPackageName, uri.toString());
+            if (className == null) {
+                return null;
+            }
+            VimeoAppStateCache.update(context, state, state.withDeeplinkActivity(shape, className));
+        }
+        Intent intent = new Intent(Intent.ACTION_VIEW, uri);
+        intent.setClassName(state.mPackageName, className);
+        return intent;
+    }
+
+    /**
+     * @param context an Android {@link Context}
+     * @param uri     any uri
+     * @return an intent for whichever app handles the uri, or null if no app does
+     */
+    @Nullable
+    static Intent implicitIntent(@NonNull final Context context, @NonNull final Uri uri) {
+        if (VimeoAppStateCache.inspector(context).resolveActivity(null, uri.toString()) == null) {
+            return null;
+        }
+        return new Intent(Intent.ACTION_VIEW, uri);
+    }
+
+    /**
+     * @param context an Android {@link Context}
+     * @return an intent pinned to the launcher activity of the Vimeo app, or null if it isn't installed
+     */
+    @Nullable
+    static Intent launchIntent(@NonNull final Context context) {
+        VimeoAppState state = VimeoAppStateCache.get(context);
+        if (!state.mInstalled) {
+            return null;
+        }
+        String className = state.launchActivity();
+        if (className == null) {
+            className = VimeoAppStateCache.inspector(context).resolveLaunchActivity(state.mPackageName);
+            if (className == null) {
+                return null;
+            }
+            VimeoAppStateCache.update(context, state, state.withLaunchActivity(className));
+        }
+        Intent intent = new Intent(Intent.ACTION_MAIN);
+        intent.addCategory(Intent.CATEGORY_LAUNCHER);
+        intent.setClassName(state.mPackageName, className);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        return intent;
+    }
+
+    private DeeplinkIntents() {
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link DeeplinkMetrics} that keeps a tap-to-launch latency histogram and outcome counters per
+ * {@link Destination}, and a latency histogram per {@link Destination} and {@link Phase}, e.g. to export p50 and p99
+ * launch latency from production and see which phase it goes to.
+ * <p>
+ * Every counter is allocated up front, so recording is a couple of atomic increments and never allocates.
+ * Latencies are bucketed in microseconds with eight buckets per power of two, so a percentile is reported to
+ * within 12.5% of the true value; anything over about a minute lands in the last bucket.
+ */
+public final class DeeplinkLatencyHistograms implements DeeplinkMetrics {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = 192;
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    private static final int DESTINATION_COUNT = Destination.values().length;
+    private static final int OUTCOME_COUNT = Outcome.values().length;
+    private static final int PHASE_COUNT = Phase.values().length;
+
+    /**
+     * Launch latency counts, {@link #BUCKET_COUNT} buckets per destination ordinal
+     */
+    private final AtomicLongArray mBuckets = new AtomicLongArray(DESTINATION_COUNT * BUCKET_COUNT);
+    /**
+     * Outcome counts, one per destination ordinal and outcome ordinal
+     */
+    private final AtomicLongArray mOutcomes = new AtomicLongArray(DESTINATION_COUNT * OUTCOME_COUNT);
+    /**
+     * Phase latency counts, {@link #BUCKET_COUNT} buckets per destination ordinal and phase ordinal
+     */
+    private final AtomicLongArray mPhaseBuckets = new AtomicLongArray(DESTINATION_COUNT * PHASE_COUNT * BUCKET_COUNT);
+
+    @Override
+    public void onPhase(@NonNull final Destination destination, @NonNull final Phase phase, final long durationNanos) {
+        mPhaseBuckets.incrementAndGet(phaseOffset(destination, phase) + bucket(durationNanos / NANOS_PER_MICRO));
+    }
+
+    @Override
+    public void onOutcome(@NonNull final Destination destination,
+                          @NonNull final Outcome outcome,
+                          final long totalNanos) {
+        mOutcomes.incrementAndGet(destination.ordinal() * OUTCOME_COUNT + outcome.ordinal());
+        if (outcome == Outcome.LAUNCHED) {
+            mBuckets.incrementAndGet(destination.ordinal() * BUCKET_COUNT + bucket(totalNanos / NANOS_PER_MICRO));
+        }
+    }
+
+    /**
+     * @param destination a {@link Destination}
+     * @param outcome     an {@link Outcome}
+     * @return how many launches of the destination ended that way
+     */
+    public long count(@NonNull final Destination destination, @NonNull final Outcome outcome) {
+        return mOutcomes.get(destination.ordinal() * OUTCOME_COUNT + outcome.ordinal());
+    }
+
+    /**
+     * @param destination a {@link Destination}
+     * @param percentile  the percentile, between 0 and 100
+     * @return the latency under which that percentage of successful launches of the destination completed, in
+     * nanoseconds, or -1 if the destination was never launched
+     */
+    public long percentileNanos(@NonNull final Destination destination, final double percentile) {
+        return percentileNanos(mBuckets, destination.ordinal() * BUCKET_COUNT, percentile);
+    }
+
+    /**
+     * @param destination a {@link Destination}
+     * @param phase       a {@link Phase}
+     * @param percentile  the percentile, between 0 and 100
+     * @return the duration under which that percentage of the phases of launches of the destination completed, in
+     * nanoseconds, or -1 if the phase was never reported for the destination
+     */
+    public long percentileNanos(@NonNull final Destination destination,
+                                @NonNull final Phase phase,
+                                final double percentile) {
+        return percentileNanos(mPhaseBuckets, phaseOffset(destination, phase), percentile);
+    }
+
+    private static long percentileNanos(@NonNull final AtomicLongArray buckets,
+                                        final int offset,
+                                        final double percentile) {
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(offset + i);
+        }
+        if (total == 0L) {
+            return -1L;
+        }
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0d), 100d) / 100d);
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(offset + i);
+            if (seen >= rank && seen > 0L) {
+                return upperBoundMicros(i) * NANOS_PER_MICRO;
+            }
+        }
+        return upperBoundMicros(BUCKET_COUNT - 1) * NANOS_PER_MICRO;
+    }
+
+    /**
+     * @return the median launch latency of the destination in nanoseconds, or -1 if it was never launched
+     */
+    public long p50Nanos(@NonNull final Destination destination) {
+        return percentileNanos(destination, 50d);
+    }
+
+    /**
+     * @return the 99th percentile launch latency of the destination in nanoseconds, or -1 if it was never launched
+     */
+    public long p99Nanos(@NonNull final Destination destination) {
+        return percentileNanos(destination, 99d);
+    }
+
+    /**
+     * @return the median duration of the phase for the destination in nanoseconds, or -1 if it was never reported
+     */
+    public long p50Nanos(@NonNull final Destination destination, @NonNull final Phase phase) {
+        return percentileNanos(destination, phase, 50d);
+    }
+
+    /**
+     * @return the 99th percentile duration of the phase for the destination in nanoseconds, or -1 if it was never
+     * reported
+     */
+    public long p99Nanos(@NonNull final Destination destination, @NonNull final Phase phase) {
+        return percentileNanos(destination, phase, 99d);
+    }
+
+    /**
+     * Clear every histogram and counter, e.g. after exporting them
+     */
+    public void reset() {
+        for (int i = 0; i < mBuckets.length(); i++) {
+            mBuckets.set(i, 0L);
+        }
+        for (int i = 0; i < mOutcomes.length(); i++) {
+            mOutcomes.set(i, 0L);
+        }
+        for (int i = 0; i < mPhaseBuckets.length(); i++) {
+            mPhaseBuckets.set(i, 0L);
+        }
+    }
+
+    private static int phaseOffset(@NonNull final Destination destination, @NonNull final Phase phase) {
+        return (destination.ordinal() * PHASE_COUNT + phase.ordinal()) * BUCKET_COUNT;
+    }
+
+    /**
+     * Values below {@link #SUB_BUCKETS} get a bucket each; above that every power of two is split into
+     * {@link #SUB_BUCKETS} buckets by the bits following the highest one.
+     */
+    static int bucket(final long micros) {
+        if (micros < SUB_BUCKETS) {
+            return micros < 0L ? 0 : (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * @return the smallest value in microseconds that falls into the bucket after this one
+     */
+    static long upperBoundMicros(final int bucket) {
+        return lowerBoundMicros(bucket + 1);
+    }
+
+    private static long lowerBoundMicros(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+}
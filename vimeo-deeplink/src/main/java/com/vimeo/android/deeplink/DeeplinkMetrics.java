@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Receives the timing and outcome of every deep link launch, see {@link VimeoDeeplink#setMetrics(DeeplinkMetrics)}.
+ * Callbacks are made synchronously on the thread doing the work, including the main thread, so implementations
+ * must be cheap and should not allocate; {@link DeeplinkLatencyHistograms} is one that doesn't.
+ */
+public interface DeeplinkMetrics {
+
+    /**
+     * The steps of a deep link launch, in order
+     */
+    enum Phase {
+        /**
+         * Looking up the installed Vimeo app, which is a cache read unless the app just changed
+         */
+        PROBE,
+        /**
+         * Checking the path and the capabilities of the Vimeo app
+         */
+        VALIDATION,
+        /**
+         * Parsing the deep link uri with {@link android.net.Uri#parse(String)}, which is nearly free for the
+         * destinations without a parameter, whose uris are parsed once and cached
+         */
+        PARSE,
+        /**
+         * Building the deep link uri and resolving the Vimeo app activity that handles it
+         */
+        RESOLVE,
+        /**
+         * Handing the intent to {@link android.content.Context#startActivity(android.content.Intent)}
+         */
+        START_ACTIVITY
+    }
+
+    /**
+     * How a deep link launch ended
+     */
+    enum Outcome {
+        LAUNCHED,
+        NOT_INSTALLED,
+        VERSION_TOO_OLD,
+        INVALID_PATH,
+        /**
+         * The Vimeo app is installed and claims to support the destination, but no activity took the deep link
+         */
+        UNRESOLVED
+    }
+
+    /**
+     * @param destination   the {@link Destination} being opened
+     * @param phase         the phase that completed
+     * @param durationNanos how long the phase took
+     */
+    void onPhase(@NonNull Destination destination, @NonNull Phase phase, long durationNanos);
+
+    /**
+     * @param destination the {@link Destination} being opened
+     * @param outcome     how the launch ended
+     * @param totalNanos  the time from the show call until the launch ended, including any time spent waiting for
+     *                    an executor or the main thread
+     */
+    void onOutcome(@NonNull Destination destination, @NonNull Outcome outcome, long totalNanos);
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matches deep link paths against the data paths declared in the intent filters of the Vimeo app. Literal and
+ * prefix paths are compiled into a character trie, so a lookup walks the path once; simple globs, which the Vimeo
+ * app rarely declares, are matched one by one with the semantics of {@link android.os.PatternMatcher}.
+ * <p>
+ * The pattern types are the {@code PATTERN_*} constants of {@link android.os.PatternMatcher}; they are copied
+ * here so that this class stays free of Android dependencies.
+ */
+final class DeeplinkPathMatcher {
+
+    static final int PATTERN_LITERAL = 0;
+    static final int PATTERN_PREFIX = 1;
+    static final int PATTERN_SIMPLE_GLOB = 2;
+
+    private final Node mRoot = new Node();
+    private final List<String> mGlobs = new ArrayList<>();
+    private final List<String> mPaths = new ArrayList<>();
+    private final List<Integer> mTypes = new ArrayList<>();
+    private boolean mMatchesAll;
+
+    /**
+     * Add a data path of an intent filter. Pattern types this class doesn't understand match every path, as the
+     * Vimeo app would then decide for itself.
+     *
+     * @param path the path of the pattern
+     * @param type the {@code PATTERN_*} type of the pattern
+     */
+    void add(@NonNull final String path, final int type) {
+        mPaths.add(path);
+        mTypes.add(type);
+        switch (type) {
+            case PATTERN_LITERAL:
+                mRoot.insert(path).mLiteral = true;
+                break;
+            case PATTERN_PREFIX:
+                mRoot.insert(path).mPrefix = true;
+                break;
+            case PATTERN_SIMPLE_GLOB:
+                mGlobs.add(path);
+                break;
+            default:
+                mMatchesAll = true;
+                break;
+        }
+    }
+
+    /**
+     * An intent filter that declares no data paths accepts every path of its scheme and host
+     */
+    void addAll() {
+        mMatchesAll = true;
+    }
+
+    /**
+     * @param path a deep link path, e.g. "/videos/1234"
+     * @return true if one of the patterns matches the path
+     */
+    boolean matches(@NonNull final CharSequence path) {
+        if (mMatchesAll) {
+            return true;
+        }
+        Node node = mRoot;
+        int length = path.length();
+        for (int i = 0; node != null; i++) {
+            if (node.mPrefix || (i == length && node.mLiteral)) {
+                return true;
+            }
+            node = i < length ? node.child(path.charAt(i)) : null;
+        }
+        for (int i = 0, size = mGlobs.size(); i < size; i++) {
+            if (matchesGlob(mGlobs.get(i), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of patterns added with {@link #add(String, int)}
+     */
+    int patternCount() {
+        return mPaths.size();
+    }
+
+    @NonNull
+    String patternPath(final int index) {
+        return mPaths.get(index);
+    }
+
+    int patternType(final int index) {
+        return mTypes.get(index);
+    }
+
+    boolean matchesAll() {
+        return mMatchesAll;
+    }
+
+    /**
+     * Port of the {@code PATTERN_SIMPLE_GLOB} branch of {@code PatternMatcher.matchPattern}: '.' matches any
+     * character, '*' repeats the preceding character and '\' escapes the next one.
+     */
+    static boolean matchesGlob(@NonNull final String pattern, @NonNull final CharSequence path) {
+        final int patternLength = pattern.length();
+        if (patternLength <= 0) {
+            return path.length() <= 0;
+        }
+        final int pathLength = path.length();
+        int ip = 0;
+        int im = 0;
+        char nextChar = pattern.charAt(0);
+        while (ip < patternLength && im < pathLength) {
+            char c = nextChar;
+            ip++;
+            nextChar = ip < patternLength ? pattern.charAt(ip) : 0;
+            final boolean escaped = c == '\\';
+            if (escaped) {
+                c = nextChar;
+                ip++;
+                nextChar = ip < patternLength ? pattern.charAt(ip) : 0;
+            }
+            if (nextChar == '*') {
+                if (!escaped && c == '.') {
+                    if (ip >= patternLength - 1) {
+                        return true;
+                    }
+                    ip++;
+                    nextChar = pattern.charAt(ip);
+                    if (nextChar == '\\') {
+                        ip++;
+                        nextChar = ip < patternLength ? pattern.charAt(ip) : 0;
+                    }
+                    do {
+                        if (path.charAt(im) == nextChar) {
+                            break;
+                        }
+                        im++;
+                    } while (im < pathLength);
+                    if (im == pathLength) {
+                        return false;
+                    }
+                    ip++;
+                    nextChar = ip < patternLength ? pattern.charAt(ip) : 0;
+                    im++;
+                } else {
+                    do {
+                        if (path.charAt(im) != c) {
+                            break;
+                        }
+                        im++;
+                    } while (im < pathLength);
+                    ip++;
+                    nextChar = ip < patternLength ? pattern.charAt(ip) : 0;
+                }
+            } else {
+                if (c != '.' && path.charAt(im) != c) {
+                    return false;
+                }
+                im++;
+            }
+        }
+        if (ip >= patternLength && im >= pathLength) {
+            return true;
+        }
+        // A trailing ".*" also matches the end of the path
+        return ip == patternLength - 2 && pattern.charAt(ip) == '.' && pattern.charAt(ip + 1) == '*';
+    }
+
+    private static final class Node {
+
+        private char[] mKeys = new char[0];
+        private Node[] mChildren = new Node[0];
+        private boolean mLiteral;
+        private boolean mPrefix;
+
+        Node child(final char c) {
+            for (int i = 0; i < mKeys.length; i++) {
+                if (mKeys[i] == c) {
+                    return mChildren[i];
+                }
+            }
+            return null;
+        }
+
+        @NonNull
+        Node insert(@NonNull final String path) {
+            Node node = this;
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                Node child = node.child(c);
+                if (child == null) {
+                    child = new Node();
+                    int size = node.mKeys.length;
+                    char[] chars = new char[size + 1];
+                    Node[] children = new Node[size + 1];
+                    System.arraycopy(node.mKeys, 0, chars, 0, size);
+                    System.arraycopy(node.mChildren, 0, children, 0, size);
+                    chars[size] = c;
+                    children[size] = child;
+                    node.mKeys = chars;
+                    node.mChildren = children;
+                }
+                node = child;
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Allocation-free validation of deep link paths. Paths are scanned a character at a time instead of being matched
+ * against a regular expression, so that validating while binding list items doesn't create garbage.
+ * <p>
+ * A single trailing slash is ignored, as it is by {@link DeeplinkRouter}, so "/feed/" is as valid as "/feed".
+ */
+final class DeeplinkPaths {
+
+    /**
+     * @param path a path such as "/album/12345" or "/users/12345/albums"
+     * @return true if the path is a single album or a list of albums
+     */
+    static boolean isValidAlbumPath(@NonNull final CharSequence path) {
+        int end = end(path);
+        return endsWith(path, end, VimeoDeeplink.VIMEO_ALBUMS_URI_POSTFIX) || isAlbumIdPath(path, end);
+    }
+
+    /**
+     * A path is valid if {@link DeeplinkRouter} routes it to a {@link Destination} of the Vimeo app, so that the
+     * two always agree
+     *
+     * @param path a path such as "/videos/12345" or "/watchlater"
+     * @return true if the path belongs to one of the {@link Destination}s
+     */
+    static boolean isValidDeeplinkPath(@NonNull final CharSequence path) {
+        int length = path.length();
+        if (length == 0 || path.charAt(0) != '/') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '?' || c == '#') {
+                // A path, not a link with a query or fragment
+                return false;
+            }
+        }
+        return DeeplinkRouter.destination(path) != null;
+    }
+
+    /**
+     * The shape of a deep link path: its first segment, then "*" for each segment after it, e.g. "/album/*" for
+     * "/album/12345" and "/users/*&#47;*" for "/users/12345/albums". Paths of one shape are handled by the same
+     * activity of the Vimeo app, so activities are resolved once per shape.
+     *
+     * @param path a deep link path, or null for a uri without one
+     * @return the shape of the path
+     */
+    @NonNull
+    static String shape(@Nullable final CharSequence path) {
+        if (path == null || path.length() == 0) {
+            return "";
+        }
+        int end = end(path);
+        int firstEnd = 1;
+        while (firstEnd < end && path.charAt(firstEnd) != '/') {
+            firstEnd++;
+        }
+        StringBuilder shape = new StringBuilder(end).append(path, 0, firstEnd);
+        for (int i = firstEnd; i < end; i++) {
+            if (path.charAt(i) == '/') {
+                shape.append("/*");
+            }
+        }
+        return shape.toString();
+    }
+
+    /**
+     * @return the length of the path without a single trailing slash, unless the path is just "/"
+     */
+    private static int end(@NonNull final CharSequence path) {
+        int length = path.length();
+        return length > 1 && path.charAt(length - 1) == '/' ? length - 1 : length;
+    }
+
+    /**
+     * "/album/" followed by one or more digits
+     */
+    private static boolean isAlbumIdPath(@NonNull final CharSequence path, final int end) {
+        String prefix = VimeoDeeplink.VIMEO_ALBUM_URI_PREFIX;
+        int idStart = prefix.length() + 1;
+        if (end <= idStart || !startsWith(path, prefix) || path.charAt(idStart - 1) != '/') {
+            return false;
+        }
+        for (int i = idStart; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * RFC 3986 path characters: unreserved, sub-delims, ':', '@' and '%' for percent-encoding
+     */
+    static boolean isPathCharacter(final char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return true;
+        }
+        switch (c) {
+            case '-':
+            case '.':
+            case '_':
+            case '~':
+            case '!':
+            case '$':
+            case '&':
+            case '\'':
+            case '(':
+            case ')':
+            case '*':
+            case '+':
+            case ',':
+            case ';':
+            case '=':
+            case ':':
+            case '@':
+            case '%':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static boolean startsWith(@NonNull final CharSequence sequence, @NonNull final String prefix) {
+        int length = prefix.length();
+        if (sequence.length() < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (sequence.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if {@code sequence[0, end)} ends with the suffix
+     */
+    private static boolean endsWith(@NonNull final CharSequence sequence, final int end, @NonNull final String suffix) {
+        int length = suffix.length();
+        int offset = end - length;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (sequence.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DeeplinkPaths() {
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Builds {@link PendingIntent}s that deep link into the Vimeo app, for notifications and app widgets. Each one is
+ * checked against the capabilities of the installed Vimeo app and pinned to the activity that handles it, like
+ * the show methods of {@link VimeoDeeplink}.
+ * <p>
+ * Creating a {@link PendingIntent} is a call into the system, so the most recently used ones are cached by
+ * {@link Destination} and id, and reused until the Vimeo app is updated or removed. Use
+ * {@link #pendingIntents(Context, Destination, long[])} for a batch of notifications, which looks up the Vimeo app
+ * once for the whole batch. Every pending intent opens the Vimeo app with the default {@link LaunchPolicy}.
+ */
+public final class DeeplinkPendingIntents {
+
+    private static final int MAX_CACHED = 64;
+
+    private static final int FLAGS = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                                     ? PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+                                     : PendingIntent.FLAG_UPDATE_CURRENT;
+
+    private static final PendingIntentCache CACHE = new PendingIntentCache(MAX_CACHED);
+
+    /**
+     * @param context     an Android {@link Context}
+     * @param destination a {@link Destination} that doesn't take a parameter, e.g. {@link Destination#FEED}
+     * @return a pending intent opening the destination, or null if the Vimeo app can't handle it or the
+     * destination takes a parameter
+     */
+    @Nullable
+    public static PendingIntent pendingIntent(@NonNull final Context context, @NonNull final Destination destination) {
+        return pendingIntent(context, destination, DeeplinkRoute.NO_ID);
+    }
+
+    /**
+     * @param context     an Android {@link Context}
+     * @param destination a {@link Destination} whose path ends in a numeric id: {@link Destination#VIDEO},
+     *                    {@link Destination#USER}, {@link Destination#CHANNEL} or {@link Destination#ALBUMS}
+     * @param id          the id, e.g. of the video
+     * @return a pending intent opening the id, or null if the Vimeo app can't handle it
+     */
+    @Nullable
+    public static PendingIntent pendingIntent(@NonNull final Context context,
+                                              @NonNull final Destination destination,
+                                              final long id) {
+        int generation = VimeoAppStateCache.generation();
+        VimeoAppState state = VimeoAppStateCache.get(context);
+        if (!canHandle(state, destination)) {
+            return null;
+        }
+        return pendingIntent(applicationContext(context), destination, id, DeeplinkIntents.launchPolicy(),
+                             generation);
+    }
+
+    /**
+     * Build the pending intents of a batch, e.g. of notifications about several videos
+     *
+     * @param context     an Android {@link Context}
+     * @param destination a {@link Destination} whose path ends in a numeric id
+     * @param ids         the ids
+     * @return a pending intent for each id, null where the Vimeo app can't handle it
+     * @see #pendingIntent(Context, Destination, long)
+     */
+    @NonNull
+    public static PendingIntent[] pendingIntents(@NonNull final Context context,
+                                                 @NonNull final Destination destination,
+                                                 @NonNull final long[] ids) {
+        PendingIntent[] pendingIntents = new PendingIntent[ids.length];
+        int generation = VimeoAppStateCache.generation();
+        VimeoAppState state = VimeoAppStateCache.get(context);
+        if (!canHandle(state, destination)) {
+            return pendingIntents;
+        }
+        Context applicationContext = applicationContext(context);
+        LaunchPolicy policy = DeeplinkIntents.launchPolicy();
+        for (int i = 0; i < ids.length; i++) {
+            pendingIntents[i] = pendingIntent(applicationContext, destination, ids[i], policy, generation);
+        }
+        return pendingIntents;
+    }
+
+    private static boolean canHandle(@NonNull final VimeoAppState state, @NonNull final Destination destination) {
+        // Urls open in whichever app handles them, so there is no Vimeo app activity to pin them to
+        return state.mInstalled && destination != Destination.URL && state.mCapabilities.canHandle(destination);
+    }
+
+    @Nullable
+    private static PendingIntent pendingIntent(@NonNull final Context context,
+                                               @NonNull final Destination destination,
+                                               final long id,
+                                               @NonNull final LaunchPolicy policy,
+                                               final int generation) {
+        PendingIntent pendingIntent = CACHE.get(destination, id, policy);
+        if (pendingIntent != null) {
+            return pendingIntent;
+        }
+        Uri uri;
+        if (id == DeeplinkRoute.NO_ID) {
+            uri = VimeoDeeplink.destinationUri(destination);
+        } else {
+            String prefix = idPrefix(destination);
+            uri = prefix != null && id > 0
+                  ? VimeoDeeplink.parse(DeeplinkUriBuilder.uri(prefix, id, DeeplinkUriBuilder.NO_START_TIME))
+                  : null;
+        }
+        if (uri == null) {
+            return null;
+        }
+        Intent intent = DeeplinkIntents.deeplinkIntent(context, uri);
+        if (intent == null) {
+            return null;
+        }
+        // Intents that differ only in their flags are the same pending intent, so keep the policies apart
+        pendingIntent = PendingIntent.getActivity(context, policy.ordinal(), policy.apply(intent), FLAGS);
+        if (pendingIntent != null) {
+            CACHE.put(destination, id, policy, pendingIntent, generation);
+        }
+        return pendingIntent;
+    }
+
+    /**
+     * @return the path prefix a numeric id is appended to, null if the destination doesn't take one
+     */
+    @Nullable
+    private static String idPrefix(@NonNull final Destination destination) {
+        switch (destination) {
+            case VIDEO:
+            case USER:
+            case CHANNEL:
+                return destination.path();
+            case ALBUMS:
+                return VimeoDeeplink.VIMEO_ALBUM_ID_PREFIX;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * The system keeps pending intents around, so they must not hold on to an activity
+     */
+    @NonNull
+    private static Context applicationContext(@NonNull final Context context) {
+        Context applicationContext = context.getApplicationContext();
+        return applicationContext != null ? applicationContext : context;
+    }
+
+    private DeeplinkPendingIntents() {
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * The result of routing an incoming link with {@link DeeplinkRouter}. Instances are mutable so that a single
+ * route can be reused for every link parsed on a thread; nothing is copied out of the routed text until
+ * {@link #parameter()} or {@link #path()} is called.
+ */
+public final class DeeplinkRoute {
+
+    public static final long NO_ID = -1L;
+
+    @Nullable
+    CharSequence mInput;
+    @Nullable
+    Destination mDestination;
+    long mId;
+    int mPathStart;
+    int mPathEnd;
+    int mParameterStart;
+    int mParameterEnd;
+    boolean mWebUrl;
+
+    public DeeplinkRoute() {
+        reset(null);
+    }
+
+    void reset(@Nullable final CharSequence input) {
+        mInput = input;
+        mDestination = null;
+        mId = NO_ID;
+        mPathStart = 0;
+        mPathEnd = 0;
+        mParameterStart = 0;
+        mParameterEnd = 0;
+        mWebUrl = false;
+    }
+
+    /**
+     * @return the {@link Destination} the link routes to, null if the last link could not be routed
+     */
+    @Nullable
+    public Destination destination() {
+        return mDestination;
+    }
+
+    /**
+     * @return the numeric id in the last segment of the link, e.g. the video id of "/videos/12345", or
+     * {@link #NO_ID}; "/users/12345/albums" has none
+     */
+    public long id() {
+        return mId;
+    }
+
+    /**
+     * @return true if the link contains a numeric id
+     */
+    public boolean hasId() {
+        return mId != NO_ID;
+    }
+
+    /**
+     * @return true if the routed link was a vimeo.com web url rather than a Vimeo app deep link
+     */
+    public boolean isWebUrl() {
+        return mWebUrl;
+    }
+
+    /**
+     * @return the last parameter segment of the link, e.g. "staffpicks" for "/channels/staffpicks", or null if the
+     * destination doesn't take a parameter. This allocates a new String.
+     */
+    @Nullable
+    public String parameter() {
+        if (mInput == null || mParameterEnd <= mParameterStart) {
+            return null;
+        }
+        return mInput.subSequence(mParameterStart, mParameterEnd).toString();
+    }
+
+    /**
+     * @return the path of the link without its query, fragment or a trailing slash, or null if the link could not
+     * be routed. This allocates a new String.
+     */
+    @Nullable
+    public String path() {
+        if (mInput == null || mDestination == null) {
+            return null;
+        }
+        return mInput.subSequence(mPathStart, mPathEnd).toString();
+    }
+
+    /**
+     * @return a copy of this route that doesn't share state with it
+     */
+    @NonNull
+    public DeeplinkRoute copy() {
+        DeeplinkRoute copy = new DeeplinkRoute();
+        copy.mInput = mInput;
+        copy.mDestination = mDestination;
+        copy.mId = mId;
+        copy.mPathStart = mPathStart;
+        copy.mPathEnd = mPathEnd;
+        copy.mParameterStart = mParameterStart;
+        copy.mParameterEnd = mParameterEnd;
+        copy.mWebUrl = mWebUrl;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "DeeplinkRoute{destination=" + mDestination + ", id=" + mId + ", webUrl=" + mWebUrl + '}';
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Routes incoming links, such as "vimeo://app.vimeo.com/videos/12345" or "https://vimeo.com/12345", to a
+ * {@link Destination}. The known paths are compiled into a character trie once, and each link is parsed in a
+ * single pass without creating intermediate Strings.
+ * <p>
+ * In path patterns, {@value #NUMERIC} matches a segment of digits, which becomes the id of the route if it is the
+ * last segment, and {@value #SEGMENT} matches any non-empty segment. A single trailing slash is ignored.
+ */
+public final class DeeplinkRouter {
+
+    private static final char NUMERIC = '#';
+    private static final char SEGMENT = '*';
+    private static final int MAX_ID_DIGITS = 18;
+
+    private static final String HTTP_SCHEME = "http://";
+    private static final String HTTPS_SCHEME = "https://";
+    private static final String WWW_PREFIX = "www.";
+
+    /**
+     * Paths of the Vimeo app deep links which take a parameter; paths without one come from {@link Destination}
+     */
+    private static final Object[] APP_PATTERNS = {
+            VimeoDeeplink.VIMEO_VIDEO_URI_PREFIX + NUMERIC, Destination.VIDEO,
+            VimeoDeeplink.VIMEO_USER_URI_PREFIX + SEGMENT, Destination.USER,
+            VimeoDeeplink.VIMEO_USER_URI_PREFIX + SEGMENT + VimeoDeeplink.VIMEO_ALBUMS_URI_POSTFIX, Destination.ALBUMS,
+            VimeoDeeplink.VIMEO_CHANNEL_URI_PREFIX + SEGMENT, Destination.CHANNEL,
+            VimeoDeeplink.VIMEO_CATEGORY_URI_PREFIX + SEGMENT, Destination.CATEGORY,
+            VimeoDeeplink.VIMEO_ONDEMAND_URI_PREFIX + SEGMENT, Destination.ON_DEMAND,
+            VimeoDeeplink.VIMEO_ALBUM_URI_PREFIX + "/" + NUMERIC, Destination.ALBUMS,
+            "/me" + VimeoDeeplink.VIMEO_ALBUMS_URI_POSTFIX, Destination.ALBUMS,
+    };
+
+    /**
+     * Paths of vimeo.com web urls
+     */
+    private static final Object[] WEB_PATTERNS = {
+            "/" + NUMERIC, Destination.VIDEO,
+            VimeoDeeplink.VIMEO_CHANNEL_URI_PREFIX + SEGMENT, Destination.CHANNEL,
+            VimeoDeeplink.VIMEO_CHANNEL_URI_PREFIX + SEGMENT + "/" + NUMERIC, Destination.VIDEO,
+            VimeoDeeplink.VIMEO_CATEGORY_URI_PREFIX + SEGMENT, Destination.CATEGORY,
+            VimeoDeeplink.VIMEO_ONDEMAND_URI_PREFIX + SEGMENT, Destination.ON_DEMAND,
+            VimeoDeeplink.VIMEO_ALBUM_URI_PREFIX + "/" + NUMERIC, Destination.ALBUMS,
+            "/showcase/" + NUMERIC, Destination.ALBUMS,
+            Destination.CATEGORIES.path(), Destination.CATEGORIES,
+            Destination.WATCH_LATER.path(), Destination.WATCH_LATER,
+            Destination.UPLOAD.path(), Destination.UPLOAD,
+    };
+
+    private static final Node APP_ROOT = compileAppTrie();
+    private static final Node WEB_ROOT = compile(new Node(), WEB_PATTERNS);
+
+    /**
+     * Per-thread route for callers that only need the {@link Destination}, see {@link #destination(CharSequence)}
+     */
+    private static final ThreadLocal<DeeplinkRoute> SCRATCH = new ThreadLocal<DeeplinkRoute>() {
+        @Override
+        protected DeeplinkRoute initialValue() {
+            return new DeeplinkRoute();
+        }
+    };
+
+    /**
+     * Route a link into the reusable {@code route}. Accepted links are Vimeo app deep links
+     * ("vimeo://app.vimeo.com/..."), bare deep link paths ("/videos/12345") and vimeo.com web urls, with or without
+     * a scheme. Any query or fragment is ignored.
+     *
+     * @param link  the link to route
+     * @param route the route to fill in; it is reset even if the link can't be routed
+     * @return true if the link routes to a {@link Destination}
+     */
+    public static boolean route(@NonNull final CharSequence link, @NonNull final DeeplinkRoute route) {
+        route.reset(link);
+        int length = link.length();
+        Node root;
+        int pathStart;
+        if (length > 0 && link.charAt(0) == '/') {
+            root = APP_ROOT;
+            pathStart = 0;
+        } else if (regionMatchesIgnoreCase(link, 0, VimeoDeeplink.VIMEO_BASE_URI)) {
+            root = APP_ROOT;
+            pathStart = VimeoDeeplink.VIMEO_BASE_URI.length();
+        } else {
+            root = WEB_ROOT;
+            pathStart = webPathStart(link);
+            route.mWebUrl = true;
+        }
+        if (pathStart < 0 || pathStart >= length || link.charAt(pathStart) != '/') {
+            route.reset(link);
+            return false;
+        }
+        int pathEnd = pathStart;
+        while (pathEnd < length) {
+            char c = link.charAt(pathEnd);
+            if (c == '?' || c == '#') {
+                break;
+            }
+            pathEnd++;
+        }
+        if (pathEnd - pathStart > 1 && link.charAt(pathEnd - 1) == '/') {
+            pathEnd--;
+        }
+        route.mPathStart = pathStart;
+        route.mPathEnd = pathEnd;
+        if (!match(root, link, pathStart, pathEnd, route)) {
+            route.reset(link);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Route a link into a new {@link DeeplinkRoute}
+     *
+     * @param link the link to route
+     * @return the route, or null if the link doesn't route to a {@link Destination}
+     * @see #route(CharSequence, DeeplinkRoute)
+     */
+    @Nullable
+    public static DeeplinkRoute route(@NonNull final CharSequence link) {
+        DeeplinkRoute route = new DeeplinkRoute();
+        return route(link, route) ? route : null;
+    }
+
+    /**
+     * Route a link only to learn its {@link Destination}, in a per-thread route so that nothing is allocated
+     *
+     * @param link the link to route
+     * @return the destination of the link, or null if it doesn't route to one
+     */
+    @Nullable
+    static Destination destination(@NonNull final CharSequence link) {
+        DeeplinkRoute route = SCRATCH.get();
+        Destination destination = route(link, route) ? route.mDestination : null;
+        // Don't keep the link reachable from the thread
+        route.reset(null);
+        return destination;
+    }
+
+    private static boolean match(@NonNull final Node root,
+                                 @NonNull final CharSequence link,
+                                 final int start,
+                                 final int end,
+                                 @NonNull final DeeplinkRoute route) {
+        Node node = root;
+        int i = start;
+        while (i < end) {
+            char c = link.charAt(i);
+            Node next = node.child(c);
+            if (next != null) {
+                node = next;
+                i++;
+                // An id followed by more of the path only qualifies it, like the user of "/users/123/albums"
+                route.mId = DeeplinkRoute.NO_ID;
+                continue;
+            }
+            if (link.charAt(i - 1) != '/') {
+                return false;
+            }
+            int segmentEnd = i;
+            while (segmentEnd < end && link.charAt(segmentEnd) != '/') {
+                if (!DeeplinkPaths.isPathCharacter(link.charAt(segmentEnd))) {
+                    return false;
+                }
+                segmentEnd++;
+            }
+            if (segmentEnd == i) {
+                // An empty segment, as in "/users//albums"
+                return false;
+            }
+            long id = parseId(link, i, segmentEnd);
+            if (id != DeeplinkRoute.NO_ID && node.mNumeric != null) {
+                node = node.mNumeric;
+            } else if (node.mSegment != null) {
+                node = node.mSegment;
+            } else {
+                return false;
+            }
+            route.mId = id;
+            route.mParameterStart = i;
+            route.mParameterEnd = segmentEnd;
+            i = segmentEnd;
+        }
+        if (node.mDestination == null) {
+            return false;
+        }
+        route.mDestination = node.mDestination;
+        return true;
+    }
+
+    /**
+     * @return the id in {@code link[start, end)} if it is all digits, {@link DeeplinkRoute#NO_ID} otherwise
+     */
+    private static long parseId(@NonNull final CharSequence link, final int start, final int end) {
+        if (end <= start || end - start > MAX_ID_DIGITS) {
+            return DeeplinkRoute.NO_ID;
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            char c = link.charAt(i);
+            if (c < '0' || c > '9') {
+                return DeeplinkRoute.NO_ID;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    /**
+     * @return the index of the path of a vimeo.com web url, or -1 if the link isn't one
+     */
+    static int webPathStart(@NonNull final CharSequence link) {
+        int index = 0;
+        if (regionMatchesIgnoreCase(link, index, HTTPS_SCHEME)) {
+            index += HTTPS_SCHEME.length();
+        } else if (regionMatchesIgnoreCase(link, index, HTTP_SCHEME)) {
+            index += HTTP_SCHEME.length();
+        }
+        if (regionMatchesIgnoreCase(link, index, WWW_PREFIX)) {
+            index += WWW_PREFIX.length();
+        }
+        if (!regionMatchesIgnoreCase(link, index, VimeoDeeplink.VIMEO_BASE_URL_HOST)) {
+            return -1;
+        }
+        index += VimeoDeeplink.VIMEO_BASE_URL_HOST.length();
+        return index < link.length() && link.charAt(index) == '/' ? index : -1;
+    }
+
+    static boolean regionMatchesIgnoreCase(@NonNull final CharSequence sequence,
+                                           final int offset,
+                                           @NonNull final String lowerCase) {
+        int length = lowerCase.length();
+        if (sequence.length() - offset < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = sequence.charAt(offset + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Node compileAppTrie() {
+        Node root = compile(new Node(), APP_PATTERNS);
+        for (Destination destination : Destination.values()) {
+            if (!destination.isParameterized()) {
+                root.add(destination.path(), destination);
+            }
+        }
+        return root;
+    }
+
+    private static Node compile(@NonNull final Node root, @NonNull final Object[] patterns) {
+        for (int i = 0; i < patterns.length; i += 2) {
+            root.add((String) patterns[i], (Destination) patterns[i + 1]);
+        }
+        return root;
+    }
+
+    /**
+     * A node of the trie. Literal characters are kept in parallel arrays since each node only has a handful of
+     * children.
+     */
+    private static final class Node {
+
+        private char[] mKeys = new char[0];
+        private Node[] mChildren = new Node[0];
+        @Nullable
+        Node mNumeric;
+        @Nullable
+        Node mSegment;
+        @Nullable
+        Destination mDestination;
+
+        @Nullable
+        Node child(final char c) {
+            char[] keys = mKeys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return mChildren[i];
+                }
+            }
+            return null;
+        }
+
+        void add(@NonNull final String pattern, @NonNull final Destination destination) {
+            Node node = this;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == NUMERIC) {
+                    if (node.mNumeric == null) {
+                        node.mNumeric = new Node();
+                    }
+                    node = node.mNumeric;
+                } else if (c == SEGMENT) {
+                    if (node.mSegment == null) {
+                        node.mSegment = new Node();
+                    }
+                    node = node.mSegment;
+                } else {
+                    Node next = node.child(c);
+                    if (next == null) {
+                        next = new Node();
+                        int size = node.mKeys.length;
+                        char[] keys = new char[size + 1];
+                        Node[] children = new Node[size + 1];
+                        System.arraycopy(node.mKeys, 0, keys, 0, size);
+                        System.arraycopy(node.mChildren, 0, children, 0, size);
+                        keys[size] = c;
+                        children[size] = next;
+                        node.mKeys = keys;
+                        node.mChildren = children;
+                    }
+                    node = next;
+                }
+            }
+            node.mDestination = destination;
+        }
+    }
+
+    private DeeplinkRouter() {
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Builds deep link uris from numeric ids in a per-thread buffer that already holds the base uri, so the only
+ * allocation is the resulting String
+ */
+final class DeeplinkUriBuilder {
+
+    static final int NO_START_TIME = -1;
+
+    private static final String START_TIME_PREFIX = "#t=";
+    private static final char START_TIME_SECONDS = 's';
+    private static final int BASE_URI_LENGTH = VimeoDeeplink.VIMEO_BASE_URI.length();
+
+    private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(64).append(VimeoDeeplink.VIMEO_BASE_URI);
+        }
+    };
+
+    /**
+     * @param prefix           a path prefix ending in a slash, e.g. {@link VimeoDeeplink#VIMEO_VIDEO_URI_PREFIX}
+     * @param id               the id appended to the prefix
+     * @param startTimeSeconds where playback should start, or {@link #NO_START_TIME}
+     * @return the full deep link uri, e.g. "vimeo://app.vimeo.com/videos/12345#t=30s"
+     */
+    @NonNull
+    static String uri(@NonNull final String prefix, final long id, final int startTimeSeconds) {
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(BASE_URI_LENGTH);
+        builder.append(prefix).append(id);
+        if (startTimeSeconds >= 0) {
+            builder.append(START_TIME_PREFIX).append(startTimeSeconds).append(START_TIME_SECONDS);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Write the deep link for a routed link in one forward pass over it, carrying over its query and fragment
+     *
+     * @param route a route filled in by {@link DeeplinkRouter}
+     * @return the full deep link uri, e.g. "vimeo://app.vimeo.com/videos/12345" for "https://vimeo.com/12345",
+     * or null if the destination has no deep link path
+     */
+    @Nullable
+    static String uri(@NonNull final DeeplinkRoute route) {
+        Destination destination = route.mDestination;
+        CharSequence link = route.mInput;
+        if (destination == null || link == null) {
+            return null;
+        }
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(BASE_URI_LENGTH);
+        if (!destination.isParameterized()) {
+            builder.append(destination.path());
+        } else if (destination == Destination.ALBUMS) {
+            if (!route.hasId()) {
+                return null;
+            }
+            builder.append(VimeoDeeplink.VIMEO_ALBUM_ID_PREFIX).append(route.mId);
+        } else if (destination == Destination.VIDEO) {
+            builder.append(destination.path()).append(route.mId);
+        } else if (destination.path() != null) {
+            builder.append(destination.path()).append(link, route.mParameterStart, route.mParameterEnd);
+        } else {
+            return null;
+        }
+        builder.append(link, queryStart(link, route.mPathEnd), link.length());
+        return builder.toString();
+    }
+
+    /**
+     * @return the index of the query or fragment of {@code link} at or after the end of its path, skipping the
+     * trailing slash the router ignored, or the length of the link if it has neither
+     */
+    private static int queryStart(@NonNull final CharSequence link, final int pathEnd) {
+        int length = link.length();
+        int i = pathEnd;
+        while (i < length) {
+            char c = link.charAt(i);
+            if (c == '?' || c == '#') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private DeeplinkUriBuilder() {
+    }
+}
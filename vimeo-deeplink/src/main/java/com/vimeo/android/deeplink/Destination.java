@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * The screens of the Vimeo app that can be deep linked into. Each destination knows its path, the minimum version
+ * of the Vimeo app that supports it, and, for screens that don't take a parameter, its prebuilt deep link uri.
+ */
+public enum Destination {
+    VIDEO(VimeoDeeplink.VIMEO_VIDEO_URI_PREFIX, true, VimeoDeeplink.VERSION_CODE_DEEP_LINK_VIDEO),
+    USER(VimeoDeeplink.VIMEO_USER_URI_PREFIX, true, VimeoDeeplink.VERSION_CODE_DEEP_LINK_USER),
+    CATEGORY(VimeoDeeplink.VIMEO_CATEGORY_URI_PREFIX, true, VimeoDeeplink.VERSION_CODE_DEEP_LINK_CATEGORY),
+    CHANNEL(VimeoDeeplink.VIMEO_CHANNEL_URI_PREFIX, true, VimeoDeeplink.VERSION_CODE_DEEP_LINK_CHANNELS),
+    ON_DEMAND(VimeoDeeplink.VIMEO_ONDEMAND_URI_PREFIX, true, VimeoDeeplink.VERSION_CODE_DEEP_LINK_ONDEMAND),
+    CATEGORIES("/categories", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_CATEGORIES),
+    EXPLORE("/explore", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_EXPLORE),
+    ACCOUNT("/account", false, VimeoDeeplink.VERSION_CODE_ANY),
+    WATCH("/watch", false, VimeoDeeplink.VERSION_CODE_ANY),
+    FEED("/feed", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_FEED),
+    ME("/me", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_ME),
+    NOTIFICATIONS("/notifications", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_NOTIFICATIONS),
+    NOTIFICATION_SETTINGS("/settings/notifications", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_NOTIFICATION_SETTINGS),
+    OFFLINE("/offline", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_OFFLINE),
+    PLAYLISTS("/playlists", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_PLAYLISTS),
+    PURCHASES("/purchases", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_PURCHASES),
+    UPGRADE("/upgrade", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_UPGRADE),
+    UPLOAD("/upload", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_UPLOAD),
+    VIDEO_MANAGER("/manage/videos", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_VIDEO_MANAGER),
+    ALBUMS(null, true, VimeoDeeplink.VERSION_CODE_DEEP_LINK_ALBUMS),
+    WATCH_LATER("/watchlater", false, VimeoDeeplink.VERSION_CODE_DEEP_LINK_WATCHLATER),
+    URL(null, true, VimeoDeeplink.VERSION_CODE_DEEP_LINK_URL);
+
+    private static final String SAMPLE_ID = "1";
+
+    @Nullable
+    private final String mPath;
+    @Nullable
+    private final String mUri;
+    private final boolean mParameterized;
+    private final int mMinVersionCode;
+
+    Destination(@Nullable final String path, final boolean parameterized, final int minVersionCode) {
+        mPath = path;
+        mUri = parameterized ? null : VimeoDeeplink.VIMEO_BASE_URI + path;
+        mParameterized = parameterized;
+        mMinVersionCode = minVersionCode;
+    }
+
+    /**
+     * @return the path of this destination, or the prefix every path must start with if the destination takes a
+     * parameter; null if any path is accepted
+     */
+    @Nullable
+    public String path() {
+        return mPath;
+    }
+
+    /**
+     * @return true if a path has to be provided to deep link into this destination, e.g. "/videos/{videoId}"
+     */
+    public boolean isParameterized() {
+        return mParameterized;
+    }
+
+    /**
+     * @return the minimum version code of the Vimeo app that can handle this destination
+     */
+    public int minVersionCode() {
+        return mMinVersionCode;
+    }
+
+    /**
+     * @return the full deep link uri of a destination that doesn't take a parameter, null otherwise
+     */
+    @Nullable
+    String uri() {
+        return mUri;
+    }
+
+    /**
+     * @param path a path provided for a parameterized destination
+     * @return true if the path belongs to this destination
+     */
+    boolean accepts(@NonNull final String path) {
+        return mPath == null || path.startsWith(mPath);
+    }
+
+    /**
+     * @param path a path provided for a parameterized destination
+     * @return the full deep link uri for the path; urls carry their own scheme and host and are used as is
+     */
+    @NonNull
+    String uriFor(@NonNull final String path) {
+        return this == URL ? path : VimeoDeeplink.VIMEO_BASE_URI + path;
+    }
+
+    /**
+     * @return a path this destination would deep link to, or null for {@link #URL}; any id resolves to the same
+     * activity, so a fixed one is used for parameterized destinations
+     */
+    @Nullable
+    String samplePath() {
+        if (this == ALBUMS) {
+            return VimeoDeeplink.VIMEO_ALBUM_ID_PREFIX + SAMPLE_ID;
+        }
+        if (mPath == null) {
+            return null;
+        }
+        return mParameterized ? mPath + SAMPLE_ID : mPath;
+    }
+
+    /**
+     * @param versionCode the version code of the installed Vimeo app
+     * @return true if that version of the Vimeo app can handle this destination
+     */
+    boolean isSupportedBy(final int versionCode) {
+        return versionCode >= mMinVersionCode || versionCode == VimeoDeeplink.VERSION_CODE_DEBUG;
+    }
+
+    /**
+     * @return the bit representing this destination in a {@link DeeplinkCapabilities} mask
+     */
+    long bit() {
+        return 1L << ordinal();
+    }
+}
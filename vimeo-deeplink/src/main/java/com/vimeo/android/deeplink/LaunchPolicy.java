@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.Intent;
+import android.os.Build;
+import android.support.annotation.NonNull;
+
+/**
+ * How a deep link opens the Vimeo app relative to the task it may already have running. Set the default with
+ * {@link VimeoDeeplink#setLaunchPolicy(LaunchPolicy)}, or pass one to a single call such as
+ * {@link VimeoDeeplink#show(android.content.Context, Destination, LaunchPolicy)}.
+ */
+public enum LaunchPolicy {
+
+    /**
+     * Clear the task of the Vimeo app and start the deep link activity as its only activity, so the user always
+     * lands on a fresh screen and back leaves the Vimeo app. This is the default, and what older versions of this
+     * library always did. It costs a relaunch of the activity stack even when the Vimeo app is warm.
+     */
+    CLEAR_TASK(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK),
+
+    /**
+     * Bring the existing task of the Vimeo app to the front and start the deep link activity on top of it. If that
+     * activity is already on top it receives the deep link in {@code onNewIntent} instead of being recreated.
+     * This is the fastest to first frame when the Vimeo app is already running, e.g. for repeat deep links.
+     */
+    REUSE_TASK(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_SINGLE_TOP),
+
+    /**
+     * Open each deep link uri as its own document in recents, leaving the main task of the Vimeo app alone.
+     * Opening the same uri again returns to its document. Documents need API 21; on older versions this behaves
+     * like {@link #REUSE_TASK}.
+     */
+    NEW_DOCUMENT(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_NEW_DOCUMENT);
+
+    private final int mFlags;
+
+    LaunchPolicy(final int flags) {
+        mFlags = flags;
+    }
+
+    /**
+     * Add the launch flags of this policy to an intent into the Vimeo app
+     *
+     * @param intent the intent about to be started
+     * @return the intent
+     */
+    @NonNull
+    Intent apply(@NonNull final Intent intent) {
+        if (this == NEW_DOCUMENT && Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            // Before documents the same bit meant FLAG_ACTIVITY_CLEAR_WHEN_TASK_RESET
+            return REUSE_TASK.apply(intent);
+        }
+        return intent.addFlags(mFlags);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Everything this library asks the {@link android.content.pm.PackageManager}, in terms of plain strings, so that
+ * the logic around it can run on a plain JVM against an in-memory implementation.
+ * {@link AndroidPackageInspector} is the implementation used on a device.
+ */
+interface PackageInspector {
+
+    /**
+     * Look up the Vimeo app with the configured {@link PackageProbe} and {@link CapabilitySource}
+     *
+     * @return the state of the Vimeo app, {@link VimeoAppState#NOT_INSTALLED} if it isn't installed
+     */
+    @NonNull
+    VimeoAppState probe();
+
+    /**
+     * Look up a single package with the lightest call available, to check a persisted state against it
+     *
+     * @param packageName a package
+     * @return the install state and version of the package, without capabilities from intent filters
+     */
+    @NonNull
+    VimeoAppState inspect(@NonNull String packageName);
+
+    /**
+     * @param packageName the package the activity must belong to, or null for any app
+     * @param uri         a uri to view
+     * @return the class name of the activity that would handle viewing the uri, or null if there is none
+     */
+    @Nullable
+    String resolveActivity(@Nullable String packageName, @NonNull String uri);
+
+    /**
+     * @param packageName a package
+     * @return the class name of the launcher activity of the package, or null if it has none
+     */
+    @Nullable
+    String resolveLaunchActivity(@NonNull String packageName);
+}
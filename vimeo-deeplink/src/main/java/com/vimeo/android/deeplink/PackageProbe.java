@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.net.Uri;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ways of asking the {@link PackageManager} about the Vimeo app. Every answer is built and parceled by the
+ * system server, so the less it includes, the cheaper the call. Set the strategy with
+ * {@link VimeoDeeplink#setPackageProbe(PackageProbe)} and compare them on a device with {@link #measureAll(Context)}.
+ */
+public enum PackageProbe {
+
+    /**
+     * {@code getPackageInfo} with {@link PackageManager#GET_ACTIVITIES}, which also parcels every activity of the
+     * Vimeo app. This is what older versions of this library did.
+     */
+    PACKAGE_INFO_WITH_ACTIVITIES {
+        @NonNull
+        @Override
+        VimeoAppState probe(@NonNull final PackageManager packageManager, @Nullable final Recording recording) {
+            return probePackageInfo(packageManager, VimeoDeeplink.VIMEO_APP_PACKAGE, PackageManager.GET_ACTIVITIES,
+                                    recording);
+        }
+    },
+
+    /**
+     * {@code getPackageInfo} without flags, which answers whether the app is installed and its version in a single
+     * small call. This is the default.
+     */
+    PACKAGE_INFO {
+        @NonNull
+        @Override
+        VimeoAppState probe(@NonNull final PackageManager packageManager, @Nullable final Recording recording) {
+            return probePackageInfo(packageManager, VimeoDeeplink.VIMEO_APP_PACKAGE, 0, recording);
+        }
+    },
+
+    /**
+     * {@code getApplicationInfo} without flags, the cheapest answer to whether the app is installed. It doesn't
+     * include the version, so when the app is installed a {@link #PACKAGE_INFO} call follows. This only pays off
+     * when the Vimeo app is usually not installed.
+     */
+    APPLICATION_INFO {
+        @NonNull
+        @Override
+        VimeoAppState probe(@NonNull final PackageManager packageManager, @Nullable final Recording recording) {
+            ApplicationInfo applicationInfo;
+            try {
+                applicationInfo = packageManager.getApplicationInfo(VimeoDeeplink.VIMEO_APP_PACKAGE, 0);
+            } catch (PackageManager.NameNotFoundException e) {
+                applicationInfo = null;
+            }
+            record(recording, applicationInfo);
+            if (applicationInfo == null) {
+                return VimeoAppState.NOT_INSTALLED;
+            }
+            return PACKAGE_INFO.probe(packageManager, recording);
+        }
+    },
+
+    /**
+     * A single {@code queryIntentActivities} for the Vimeo deep link scheme, which finds every installed app that
+     * handles Vimeo deep links, such as beta and internal builds next to the store app. The handler with the
+     * highest version code is used for all deep links, with the store app winning ties. Each handler found costs a
+     * {@link #PACKAGE_INFO} call to read its version. If no app handles the scheme, the store app is probed as usual.
+     * <p>
+     * Only handlers in a Vimeo package are considered, and while the store app is installed only those signed like
+     * it, so that another app can't receive Vimeo deep links by declaring the same intent filter.
+     */
+    DISCOVER {
+        @NonNull
+        @Override
+        VimeoAppState probe(@NonNull final PackageManager packageManager, @Nullable final Recording recording) {
+            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(DISCOVERY_URI));
+            List<ResolveInfo> handlers =
+                    packageManager.queryIntentActivities(intent, PackageManager.MATCH_DEFAULT_ONLY);
+            record(recording, handlers);
+            VimeoAppState best = null;
+            for (int i = 0; handlers != null && i < handlers.size(); i++) {
+                ActivityInfo activityInfo = handlers.get(i).activityInfo;
+                if (activityInfo == null || (best != null && best.mPackageName.equals(activityInfo.packageName)) ||
+                    !isVimeoApp(packageManager, activityInfo.packageName, recording)) {
+                    continue;
+                }
+                VimeoAppState candidate = probePackageInfo(packageManager, activityInfo.packageName, 0, recording);
+                if (candidate.mInstalled && (best == null || isBetter(candidate, best))) {
+                    best = candidate;
+                }
+            }
+            return best != null ? best : PACKAGE_INFO.probe(packageManager, recording);
+        }
+
+        private boolean isVimeoApp(@NonNull final PackageManager packageManager,
+                                   @NonNull final String packageName,
+                                   @Nullable final Recording recording) {
+            if (VimeoDeeplink.VIMEO_APP_PACKAGE.equals(packageName)) {
+                return true;
+            }
+            if (!packageName.startsWith(VimeoDeeplink.VIMEO_PACKAGE_PREFIX)) {
+                return false;
+            }
+            // Without the store app there is no signature to compare with, so the package name is all there is
+            int signatures = packageManager.checkSignatures(VimeoDeeplink.VIMEO_APP_PACKAGE, packageName);
+            record(recording, null);
+            return signatures == PackageManager.SIGNATURE_MATCH ||
+                   signatures == PackageManager.SIGNATURE_UNKNOWN_PACKAGE;
+        }
+
+        private boolean isBetter(@NonNull final VimeoAppState candidate, @NonNull final VimeoAppState best) {
+            if (candidate.mVersionCode != best.mVersionCode) {
+                return candidate.mVersionCode > best.mVersionCode;
+            }
+            return VimeoDeeplink.VIMEO_APP_PACKAGE.equals(candidate.mPackageName);
+        }
+    };
+
+    /**
+     * Video deep links are supported by every Vimeo app version, so every handler matches this uri
+     */
+    private static final String DISCOVERY_URI =
+            VimeoDeeplink.VIMEO_BASE_URI + VimeoDeeplink.VIMEO_VIDEO_URI_PREFIX + "1";
+
+    /**
+     * @param packageManager the {@link PackageManager}
+     * @param recording      records every call made to the {@link PackageManager}, null when not measuring
+     * @return the state of the Vimeo app
+     */
+    @NonNull
+    abstract VimeoAppState probe(@NonNull PackageManager packageManager, @Nullable Recording recording);
+
+    /**
+     * @param packageManager the {@link PackageManager}
+     * @return the state of the Vimeo app
+     */
+    @NonNull
+    VimeoAppState probe(@NonNull final PackageManager packageManager) {
+        return probe(packageManager, null);
+    }
+
+    /**
+     * @param packageManager the {@link PackageManager}
+     * @param packageName    the package of a Vimeo app
+     * @return the state of that package, read with a flag-less {@code getPackageInfo}
+     */
+    @NonNull
+    static VimeoAppState probePackageInfo(@NonNull final PackageManager packageManager,
+                                          @NonNull final String packageName) {
+        return probePackageInfo(packageManager, packageName, 0, null);
+    }
+
+    @NonNull
+    static VimeoAppState probePackageInfo(@NonNull final PackageManager packageManager,
+                                          @NonNull final String packageName,
+                                          final int flags,
+                                          @Nullable final Recording recording) {
+        PackageInfo packageInfo;
+        try {
+            packageInfo = packageManager.getPackageInfo(packageName, flags);
+        } catch (PackageManager.NameNotFoundException e) {
+            packageInfo = null;
+        }
+        record(recording, packageInfo);
+        if (packageInfo == null) {
+            return VimeoAppState.NOT_INSTALLED;
+        }
+        return new VimeoAppState(packageInfo.packageName, true, packageInfo.versionCode, packageInfo.lastUpdateTime);
+    }
+
+    private static void record(@Nullable final Recording recording, @Nullable final Object answer) {
+        if (recording != null) {
+            recording.mCalls++;
+            recording.mParcelSizeBytes += parcelSize(answer);
+        }
+    }
+
+    /**
+     * Time one {@link #probe(PackageManager)}, every {@link PackageManager} call included, and count those calls
+     * and the size of their answers when parceled, which approximates the size of the binder replies. The calls
+     * are counted in a second probe, so that parceling doesn't add to the latency. Results vary between calls, so
+     * measure several times when comparing.
+     *
+     * @param context an Android {@link Context}
+     * @return the measurement
+     */
+    @NonNull
+    public Measurement measure(@NonNull final Context context) {
+        PackageManager packageManager = context.getPackageManager();
+        long start = System.nanoTime();
+        VimeoAppState state = probe(packageManager, null);
+        long latencyNanos = System.nanoTime() - start;
+        Recording recording = new Recording();
+        probe(packageManager, recording);
+        return new Measurement(this, state.mInstalled, latencyNanos, recording.mCalls, recording.mParcelSizeBytes);
+    }
+
+    private static int parcelSize(@Nullable final Object answer) {
+        if (answer == null) {
+            return 0;
+        }
+        Parcel parcel = Parcel.obtain();
+        try {
+            if (answer instanceof List) {
+                for (Object parcelable : (List<?>) answer) {
+                    parcel.writeParcelable((Parcelable) parcelable, 0);
+                }
+            } else {
+                parcel.writeParcelable((Parcelable) answer, 0);
+            }
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * @param context an Android {@link Context}
+     * @return one measurement of every probe
+     * @see #measure(Context)
+     */
+    @NonNull
+    public static List<Measurement> measureAll(@NonNull final Context context) {
+        PackageProbe[] probes = values();
+        List<Measurement> measurements = new ArrayList<>(probes.length);
+        for (PackageProbe probe : probes) {
+            measurements.add(probe.measure(context));
+        }
+        return measurements;
+    }
+
+    /**
+     * The {@link PackageManager} calls made by one probe
+     */
+    static final class Recording {
+
+        int mCalls;
+        int mParcelSizeBytes;
+    }
+
+    /**
+     * The cost of one {@link PackageProbe}
+     */
+    public static final class Measurement {
+
+        private final PackageProbe mProbe;
+        private final boolean mInstalled;
+        private final long mLatencyNanos;
+        private final int mCalls;
+        private final int mParcelSizeBytes;
+
+        Measurement(@NonNull final PackageProbe probe,
+                    final boolean installed,
+                    final long latencyNanos,
+                    final int calls,
+                    final int parcelSizeBytes) {
+            mProbe = probe;
+            mInstalled = installed;
+            mLatencyNanos = latencyNanos;
+            mCalls = calls;
+            mParcelSizeBytes = parcelSizeBytes;
+        }
+
+        /**
+         * @return the measured probe
+         */
+        @NonNull
+        public PackageProbe probe() {
+            return mProbe;
+        }
+
+        /**
+         * @return true if the probe found the Vimeo app
+         */
+        public boolean isInstalled() {
+            return mInstalled;
+        }
+
+        /**
+         * @return how long the probe took, all of its calls included, in nanoseconds
+         */
+        public long latencyNanos() {
+            return mLatencyNanos;
+        }
+
+        /**
+         * @return how many {@link PackageManager} calls the probe made
+         */
+        public int calls() {
+            return mCalls;
+        }
+
+        /**
+         * @return the total size of the answers when parceled, in bytes; an answer that the app isn't installed
+         * counts as 0
+         */
+        public int parcelSizeBytes() {
+            return mParcelSizeBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Measurement{probe=" + mProbe + ", installed=" + mInstalled + ", latencyNanos=" + mLatencyNanos +
+                   ", calls=" + mCalls + ", parcelSizeBytes=" + mParcelSizeBytes + '}';
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.app.PendingIntent;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * A small least recently used cache of {@link PendingIntent}s, keyed by {@link Destination}, numeric id and
+ * {@link LaunchPolicy} without boxing. The cache is tiny, so a scan of parallel arrays is as fast as hashing and
+ * neither looking up nor replacing an entry allocates. Everything is dropped when the Vimeo app changes, since the
+ * cached intents point at its activities.
+ */
+final class PendingIntentCache {
+
+    private final Destination[] mDestinations;
+    private final long[] mIds;
+    private final LaunchPolicy[] mPolicies;
+    private final PendingIntent[] mPendingIntents;
+    /**
+     * When each entry was last used, from {@link #mClock}; 0 for an empty entry
+     */
+    private final long[] mLastUsed;
+    private long mClock;
+    private int mGeneration;
+
+    PendingIntentCache(final int maxSize) {
+        mDestinations = new Destination[maxSize];
+        mIds = new long[maxSize];
+        mPolicies = new LaunchPolicy[maxSize];
+        mPendingIntents = new PendingIntent[maxSize];
+        mLastUsed = new long[maxSize];
+        mGeneration = VimeoAppStateCache.generation();
+    }
+
+    /**
+     * @return the cached pending intent, or null if there is none
+     */
+    @Nullable
+    synchronized PendingIntent get(@NonNull final Destination destination,
+                                   final long id,
+                                   @NonNull final LaunchPolicy policy) {
+        int index = indexOf(destination, id, policy);
+        if (index < 0) {
+            return null;
+        }
+        mLastUsed[index] = ++mClock;
+        return mPendingIntents[index];
+    }
+
+    /**
+     * Cache a pending intent, evicting the least recently used one if the cache is full
+     *
+     * @param generation the {@link VimeoAppStateCache#generation()} the pending intent was built against; if the
+     *                   Vimeo app changed since, it isn't cached
+     */
+    synchronized void put(@NonNull final Destination destination,
+                          final long id,
+                          @NonNull final LaunchPolicy policy,
+                          @NonNull final PendingIntent pendingIntent,
+                          final int generation) {
+        if (generation != VimeoAppStateCache.generation()) {
+            return;
+        }
+        int index = indexOf(destination, id, policy);
+        if (index < 0) {
+            index = 0;
+            for (int i = 1; i < mLastUsed.length && mLastUsed[index] != 0; i++) {
+                if (mLastUsed[i] < mLastUsed[index]) {
+                    index = i;
+                }
+            }
+        }
+        mDestinations[index] = destination;
+        mIds[index] = id;
+        mPolicies[index] = policy;
+        mPendingIntents[index] = pendingIntent;
+        mLastUsed[index] = ++mClock;
+    }
+
+    private int indexOf(@NonNull final Destination destination, final long id, @NonNull final LaunchPolicy policy) {
+        int generation = VimeoAppStateCache.generation();
+        if (generation != mGeneration) {
+            clear();
+            mGeneration = generation;
+            return -1;
+        }
+        for (int i = 0; i < mLastUsed.length; i++) {
+            if (mLastUsed[i] != 0 && mIds[i] == id && mDestinations[i] == destination && mPolicies[i] == policy) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void clear() {
+        for (int i = 0; i < mLastUsed.length; i++) {
+            mDestinations[i] = null;
+            mPolicies[i] = null;
+            mPendingIntents[i] = null;
+            mLastUsed[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A link resolved ahead of the tap that opens it, from
+ * {@link VimeoDeeplink#prepare(Context, CharSequence, Executor)}. Routing and validating the link,
+ * {@link Uri#parse(String)}, probing the Vimeo app and resolving the activity that handles the link all happen
+ * while preparing, so {@link #show(Context)} only starts the activity.
+ * <p>
+ * The results are read once the preparation finished. If it hasn't been picked up by the executor yet, it runs on
+ * the calling thread instead; if it is running, the calling thread waits for it.
+ */
+public final class PreparedDeeplink {
+
+    @NonNull
+    private final String mLink;
+    /**
+     * The {@link VimeoAppStateCache#generation()} this link was prepared against
+     */
+    private final int mGeneration;
+    @NonNull
+    private final FutureTask<Void> mTask;
+
+    // Written by the task, and read only after it completed
+    @Nullable
+    private Destination mDestination;
+    @Nullable
+    private Uri mUri;
+    @Nullable
+    private Intent mIntent;
+    @Nullable
+    private DeeplinkMetrics.Outcome mFailure;
+
+    PreparedDeeplink(@NonNull final Context context, @NonNull final String link) {
+        mLink = link;
+        mGeneration = VimeoAppStateCache.generation();
+        mTask = new FutureTask<>(new Runnable() {
+            @Override
+            public void run() {
+                prepare(context);
+            }
+        }, null);
+    }
+
+    /**
+     * Route, validate and resolve the link, remembering why it can't be opened if it can't
+     */
+    private void prepare(@NonNull final Context context) {
+        DeeplinkRoute route = new DeeplinkRoute();
+        String uri = null;
+        if (DeeplinkRouter.route(mLink, route)) {
+            mDestination = route.destination();
+            if (route.isWebUrl()) {
+                uri = DeeplinkUriBuilder.uri(route);
+            } else if (mLink.charAt(0) == '/') {
+                uri = mDestination.uriFor(mLink);
+            } else {
+                uri = mLink;
+            }
+        }
+        Destination destination = mDestination;
+        if (destination == null || uri == null) {
+            mFailure = DeeplinkMetrics.Outcome.INVALID_PATH;
+            return;
+        }
+        VimeoAppState state = VimeoAppStateCache.get(context);
+        if (!state.mInstalled) {
+            mFailure = DeeplinkMetrics.Outcome.NOT_INSTALLED;
+        } else if (!state.mCapabilities.canHandle(destination)) {
+            mFailure = DeeplinkMetrics.Outcome.VERSION_TOO_OLD;
+        } else {
+            mUri = VimeoDeeplink.parse(uri);
+            mIntent = DeeplinkIntents.deeplinkIntent(context, mUri);
+            if (mIntent == null) {
+                mFailure = DeeplinkMetrics.Outcome.UNRESOLVED;
+            }
+        }
+    }
+
+    /**
+     * @return the task that prepares the link, for the executor
+     */
+    @NonNull
+    Runnable task() {
+        return mTask;
+    }
+
+    /**
+     * @return false if the Vimeo app changed since this link was prepared, so it must be prepared again
+     */
+    boolean isCurrent() {
+        return mGeneration == VimeoAppStateCache.generation();
+    }
+
+    /**
+     * @return the link as it was passed to {@link VimeoDeeplink#prepare(Context, CharSequence, Executor)}
+     */
+    @NonNull
+    public String link() {
+        return mLink;
+    }
+
+    /**
+     * @return true once the link is prepared, so reading it won't block
+     */
+    public boolean isPrepared() {
+        return mTask.isDone();
+    }
+
+    /**
+     * @return the {@link Destination} the link routes to, null if it isn't a Vimeo link
+     */
+    @Nullable
+    public Destination destination() {
+        await();
+        return mDestination;
+    }
+
+    /**
+     * @return the deep link uri the link opens, null if the Vimeo app can't open it
+     */
+    @Nullable
+    public Uri uri() {
+        await();
+        return mUri;
+    }
+
+    /**
+     * @return true if the installed Vimeo app can open the link and the activity handling it was found
+     */
+    public boolean canHandle() {
+        await();
+        return mIntent != null;
+    }
+
+    /**
+     * Open the prepared link with the default {@link LaunchPolicy}
+     *
+     * @param context an Android {@link Context}
+     * @return true if the Vimeo app was opened
+     * @see #show(Context, LaunchPolicy)
+     */
+    @MainThread
+    public boolean show(@NonNull final Context context) {
+        return show(context, DeeplinkIntents.launchPolicy());
+    }
+
+    /**
+     * Open the prepared link. If the Vimeo app was installed, updated or removed since it was prepared, it is
+     * prepared again first. Like {@link VimeoDeeplink#openUrl(Context, String, LaunchPolicy)}, a url the Vimeo
+     * app can't open is opened in whichever app handles it instead.
+     *
+     * @param context an Android {@link Context}
+     * @param policy  how the Vimeo app is opened if it already has a task
+     * @return true if the Vimeo app, or for a url the app handling it, was opened
+     */
+    @MainThread
+    public boolean show(@NonNull final Context context, @NonNull final LaunchPolicy policy) {
+        long start = DeeplinkInstrumentation.now();
+        PreparedDeeplink prepared = isCurrent() ? this : PreparedDeeplinkCache.prepareNow(context, mLink);
+        prepared.await();
+        Destination destination = prepared.mDestination;
+        // Copy the intent so that the flags of one launch don't stick to the next
+        if (prepared.mIntent != null &&
+            VimeoDeeplink.startVimeoActivity(context, destination, new Intent(prepared.mIntent), policy, start)) {
+            return true;
+        }
+        if (isUrl(mLink)) {
+            // As in openUrl, only the launch of the url is reported once the deep link failed
+            return VimeoDeeplink.show(context, Destination.URL, mLink, policy);
+        }
+        if (prepared.mFailure != null) {
+            // A link that doesn't route has no destination of its own, so it is reported as a url
+            DeeplinkInstrumentation.outcome(destination != null ? destination : Destination.URL, prepared.mFailure,
+                                            start);
+        }
+        return false;
+    }
+
+    /**
+     * @return false for a Vimeo app deep link or a deep link path, which only the Vimeo app can open
+     */
+    private static boolean isUrl(@NonNull final String link) {
+        return !link.isEmpty() && link.charAt(0) != '/' &&
+               !DeeplinkRouter.regionMatchesIgnoreCase(link, 0, VimeoDeeplink.VIMEO_BASE_URI);
+    }
+
+    /**
+     * Wait for the link to be prepared, preparing it on this thread if the executor hasn't started yet
+     */
+    void await() {
+        mTask.run();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    mTask.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedDeeplink{" + mLink + (isPrepared() ? ", prepared" : "") + '}';
+    }
+}
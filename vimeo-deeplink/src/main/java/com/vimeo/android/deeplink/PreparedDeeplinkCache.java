@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.util.LruCache;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The most recently prepared links, so that preparing a link again, e.g. when it scrolls back onto the screen,
+ * returns the same {@link PreparedDeeplink}. The cache is bounded to roughly a few screens of links, so scrolling
+ * through a long feed doesn't grow it.
+ */
+final class PreparedDeeplinkCache {
+
+    private static final int MAX_SIZE = 32;
+
+    private static final LruCache<String, PreparedDeeplink> PREPARED = new LruCache<>(MAX_SIZE);
+
+    /**
+     * @param context  an Android {@link Context}
+     * @param link     the link to prepare
+     * @param executor the executor to prepare it on
+     * @return the prepared link, which may still be being prepared
+     */
+    @NonNull
+    static PreparedDeeplink prepare(@NonNull final Context context,
+                                    @NonNull final CharSequence link,
+                                    @NonNull final Executor executor) {
+        String key = link.toString();
+        PreparedDeeplink prepared = PREPARED.get(key);
+        if (prepared != null && prepared.isCurrent()) {
+            return prepared;
+        }
+        prepared = new PreparedDeeplink(applicationContext(context), key);
+        PREPARED.put(key, prepared);
+        executor.execute(prepared.task());
+        return prepared;
+    }
+
+    /**
+     * Prepare a link on the calling thread, replacing a stale one
+     *
+     * @param context an Android {@link Context}
+     * @param link    the link to prepare
+     * @return the prepared link
+     */
+    @NonNull
+    static PreparedDeeplink prepareNow(@NonNull final Context context, @NonNull final String link) {
+        PreparedDeeplink prepared = new PreparedDeeplink(applicationContext(context), link);
+        prepared.await();
+        PREPARED.put(link, prepared);
+        return prepared;
+    }
+
+    /**
+     * Prepared links outlive the screen that prepared them, so they must not hold on to an activity
+     */
+    @NonNull
+    private static Context applicationContext(@NonNull final Context context) {
+        Context applicationContext = context.getApplicationContext();
+        return applicationContext != null ? applicationContext : context;
+    }
+
+    private PreparedDeeplinkCache() {
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * An immutable snapshot of what we know about the installed Vimeo app: its install state, version, capabilities
+ * and the activities that handle its deep links. Activities are resolved lazily; each one resolved
+ * produces a new snapshot with {@link #withDeeplinkActivity(String, String)}, which
+ * {@link VimeoAppStateCache} publishes in place of this one. A snapshot stays current until the Vimeo app is
+ * updated or removed.
+ * <p>
+ * Activities are kept as class names within {@link #mPackageName}, so this class has no Android dependencies.
+ * Deep link activities are keyed by the {@link DeeplinkPaths#shape(CharSequence) shape} of the path they were
+ * resolved for rather than by {@link Destination}, since one destination can have paths that the Vimeo app
+ * handles in different activities, e.g. a single album and the albums of a user.
+ */
+final class VimeoAppState {
+
+    static final VimeoAppState NOT_INSTALLED = new VimeoAppState(VimeoDeeplink.VIMEO_APP_PACKAGE, false, 0, 0L);
+
+    /**
+     * The Vimeo app only has so many path shapes; past this, activities of new shapes are resolved every time
+     */
+    static final int MAX_DEEPLINK_SHAPES = 32;
+
+    private static final String[] NONE = new String[0];
+
+    /**
+     * The package of the Vimeo app deep links are sent to
+     */
+    final String mPackageName;
+    final boolean mInstalled;
+    final int mVersionCode;
+    final long mLastUpdateTime;
+    /**
+     * The data paths of the deep link intent filters of the Vimeo app, null unless they were discovered
+     */
+    @Nullable
+    final DeeplinkPathMatcher mPathMatcher;
+    final DeeplinkCapabilities mCapabilities;
+
+    /**
+     * Path shapes and the class names of the activities that handle them, in parallel; never modified once the
+     * snapshot is constructed
+     */
+    private final String[] mDeeplinkShapes;
+    private final String[] mDeeplinkActivities;
+    @Nullable
+    private final String mLaunchActivity;
+
+    VimeoAppState(@NonNull final String packageName,
+                  final boolean installed,
+                  final int versionCode,
+                  final long lastUpdateTime) {
+        this(packageName, installed, versionCode, lastUpdateTime, null);
+    }
+
+    VimeoAppState(@NonNull final String packageName,
+                  final boolean installed,
+                  final int versionCode,
+                  final long lastUpdateTime,
+                  @Nullable final DeeplinkPathMatcher pathMatcher) {
+        this(packageName, installed, versionCode, lastUpdateTime, pathMatcher,
+             DeeplinkCapabilities.evaluate(installed, versionCode, pathMatcher),
+             null, NONE, NONE);
+    }
+
+    /**
+     * @param deeplinkShapes     the path shapes deep link activities were resolved for
+     * @param deeplinkActivities the deep link activities of the shapes, in parallel; both arrays are owned by the
+     *                           new snapshot from now on
+     */
+    VimeoAppState(@NonNull final String packageName,
+                  final boolean installed,
+                  final int versionCode,
+                  final long lastUpdateTime,
+                  @Nullable final DeeplinkPathMatcher pathMatcher,
+                  @Nullable final String launchActivity,
+                  @NonNull final String[] deeplinkShapes,
+                  @NonNull final String[] deeplinkActivities) {
+        this(packageName, installed, versionCode, lastUpdateTime, pathMatcher,
+             DeeplinkCapabilities.evaluate(installed, versionCode, pathMatcher),
+             launchActivity, deeplinkShapes, deeplinkActivities);
+    }
+
+    private VimeoAppState(@NonNull final String packageName,
+                          final boolean installed,
+                          final int versionCode,
+                          final long lastUpdateTime,
+                          @Nullable final DeeplinkPathMatcher pathMatcher,
+                          @NonNull final DeeplinkCapabilities capabilities,
+                          @Nullable final String launchActivity,
+                          @NonNull final String[] deeplinkShapes,
+                          @NonNull final String[] deeplinkActivities) {
+        mPackageName = packageName;
+        mInstalled = installed;
+        mVersionCode = versionCode;
+        mLastUpdateTime = lastUpdateTime;
+        mPathMatcher = pathMatcher;
+        mCapabilities = capabilities;
+        mLaunchActivity = launchActivity;
+        mDeeplinkShapes = deeplinkShapes;
+        mDeeplinkActivities = deeplinkActivities;
+    }
+
+    /**
+     * @param pathMatcher the discovered data paths of the deep link intent filters of the Vimeo app
+     * @return a copy of this state whose capabilities come from the intent filters
+     */
+    @NonNull
+    VimeoAppState withPathMatcher(@NonNull final DeeplinkPathMatcher pathMatcher) {
+        return new VimeoAppState(mPackageName, mInstalled, mVersionCode, mLastUpdateTime, pathMatcher,
+                                 mLaunchActivity, mDeeplinkShapes, mDeeplinkActivities);
+    }
+
+    /**
+     * @param shape     the {@link DeeplinkPaths#shape(CharSequence) shape} of the deep link path
+     * @param className the activity that handles it
+     * @return a copy of this state that also knows the activity handling deep links of the shape, or this state if
+     * it already knows {@link #MAX_DEEPLINK_SHAPES} shapes
+     */
+    @NonNull
+    VimeoAppState withDeeplinkActivity(@NonNull final String shape, @NonNull final String className) {
+        int index = indexOfShape(shape);
+        String[] deeplinkShapes = mDeeplinkShapes;
+        String[] deeplinkActivities;
+        if (index >= 0) {
+            deeplinkActivities = mDeeplinkActivities.clone();
+        } else if (deeplinkShapes.length < MAX_DEEPLINK_SHAPES) {
+            index = deeplinkShapes.length;
+            deeplinkShapes = new String[index + 1];
+            System.arraycopy(mDeeplinkShapes, 0, deeplinkShapes, 0, index);
+            deeplinkShapes[index] = shape;
+            deeplinkActivities = new String[index + 1];
+            System.arraycopy(mDeeplinkActivities, 0, deeplinkActivities, 0, index);
+        } else {
+            return this;
+        }
+        deeplinkActivities[index] = className;
+        return new VimeoAppState(mPackageName, mInstalled, mVersionCode, mLastUpdateTime, mPathMatcher,
+                                 mCapabilities, mLaunchActivity, deeplinkShapes, deeplinkActivities);
+    }
+
+    /**
+     * @return a copy of this state that also knows the launcher activity of the Vimeo app
+     */
+    @NonNull
+    VimeoAppState withLaunchActivity(@NonNull final String className) {
+        return new VimeoAppState(mPackageName, mInstalled, mVersionCode, mLastUpdateTime, mPathMatcher,
+                                 mCapabilities, className, mDeeplinkShapes, mDeeplinkActivities);
+    }
+
+    /**
+     * @param installed      whether the Vimeo app is installed now
+     * @param versionCode    its current version code
+     * @param lastUpdateTime its current last update time
+     * @return true if this state still describes the installed Vimeo app
+     */
+    boolean isCurrent(final boolean installed, final int versionCode, final long lastUpdateTime) {
+        if (!installed) {
+            return !mInstalled;
+        }
+        return mInstalled && mVersionCode == versionCode && mLastUpdateTime == lastUpdateTime;
+    }
+
+    /**
+     * @param shape the {@link DeeplinkPaths#shape(CharSequence) shape} of a deep link path
+     * @return the class of the Vimeo app activity that handles deep links of the shape, null if not resolved yet
+     */
+    @Nullable
+    String deeplinkActivity(@NonNull final String shape) {
+        int index = indexOfShape(shape);
+        return index >= 0 ? mDeeplinkActivities[index] : null;
+    }
+
+    /**
+     * @return the number of path shapes whose deep link activity is known
+     */
+    int deeplinkShapeCount() {
+        return mDeeplinkShapes.length;
+    }
+
+    /**
+     * @param index an index below {@link #deeplinkShapeCount()}
+     * @return the shape at the index
+     */
+    @NonNull
+    String deeplinkShape(final int index) {
+        return mDeeplinkShapes[index];
+    }
+
+    /**
+     * @param index an index below {@link #deeplinkShapeCount()}
+     * @return the activity that handles the shape at the index
+     */
+    @NonNull
+    String deeplinkActivity(final int index) {
+        return mDeeplinkActivities[index];
+    }
+
+    private int indexOfShape(@NonNull final String shape) {
+        String[] deeplinkShapes = mDeeplinkShapes;
+        for (int i = 0; i < deeplinkShapes.length; i++) {
+            if (deeplinkShapes[i].equals(shape)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the class of the launcher activity of the Vimeo app, null if not resolved yet
+     */
+    @Nullable
+    String launchActivity() {
+        return mLaunchActivity;
+    }
+}
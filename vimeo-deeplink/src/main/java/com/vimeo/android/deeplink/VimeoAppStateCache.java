@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Process-wide cache of the {@link VimeoAppState}. The Vimeo app is probed through the {@link PackageManager}
+ * once, and the result is reused until {@link VimeoPackageMonitor} tells us the Vimeo app was added, replaced or
+ * removed.
+ * <p>
+ * The state is a single immutable snapshot published through an {@link AtomicReference}, so reading it never
+ * locks or allocates. A miss is single-flight: the first thread to miss probes the Vimeo app and every other
+ * thread that misses at the same time waits for that probe rather than starting its own.
+ * <p>
+ * The state is also persisted with {@link VimeoAppStateStore}. On a cold start the persisted state is validated
+ * against the version code and last update time of the Vimeo package, which is a much lighter call than
+ * probing the app and resolving its activities again.
+ */
+final class VimeoAppStateCache {
+
+    private static final AtomicReference<Snapshot> STATE = new AtomicReference<>(new Snapshot(0, null));
+    private static final AtomicReference<FutureTask<VimeoAppState>> LOAD = new AtomicReference<>();
+    private static final AtomicBoolean MONITORING = new AtomicBoolean();
+
+    private static volatile PackageProbe sProbe = PackageProbe.PACKAGE_INFO;
+    private static volatile CapabilitySource sCapabilitySource = CapabilitySource.VERSION_CODES;
+    @Nullable
+    private static volatile PackageInspector sInspector;
+
+    /**
+     * @param packageName the package named by a package broadcast
+     * @return true if the package may be a Vimeo app that deep links are, or could be, sent to
+     */
+    static boolean isVimeoPackage(@Nullable final String packageName) {
+        if (packageName == null) {
+            return false;
+        }
+        VimeoAppState state = STATE.get().mState;
+        return packageName.equals(VimeoDeeplink.VIMEO_APP_PACKAGE) ||
+               (state != null && packageName.equals(state.mPackageName)) ||
+               (sProbe == PackageProbe.DISCOVER && packageName.startsWith(VimeoDeeplink.VIMEO_PACKAGE_PREFIX));
+    }
+
+    /**
+     * @param context an Android {@link Context}
+     * @return the cached state of the Vimeo app, probing the {@link PackageManager} only if nothing is cached
+     */
+    @NonNull
+    static VimeoAppState get(@NonNull final Context context) {
+        VimeoAppState state = STATE.get().mState;
+        if (state == null) {
+            state = load(context);
+        }
+        return state;
+    }
+
+    /**
+     * @return the cached state, or null if nothing is cached; never probes the {@link PackageManager}
+     */
+    @Nullable
+    static VimeoAppState peek() {
+        return STATE.get().mState;
+    }
+
+    /**
+     * @return a number that changes whenever the cached state is dropped, so that anything derived from the state
+     * can tell that it may be stale
+     */
+    static int generation() {
+        return STATE.get().mGeneration;
+    }
+
+    /**
+     * Forget everything known about the Vimeo app, in memory and on disk, after it was added, replaced or removed
+     *
+     * @param context an Android {@link Context}
+     */
+    static void onPackageChanged(@NonNull final Context context) {
+        invalidate();
+        VimeoAppStateStore.delete(context);
+    }
+
+    /**
+     * Drop the cached state so that the next call to {@link #get(Context)} probes the {@link PackageManager}
+     */
+    static void invalidate() {
+        advance(null);
+    }
+
+    /**
+     * Start a new generation holding the state
+     */
+    private static void advance(@Nullable final VimeoAppState state) {
+        Snapshot current;
+        do {
+            current = STATE.get();
+        } while (!STATE.compareAndSet(current, new Snapshot(current.mGeneration + 1, state)));
+    }
+
+    /**
+     * Replace a published state with a copy that knows more, e.g. a newly resolved activity, and persist it. If
+     * the state was replaced or invalidated in the meantime the update is dropped; it will be resolved again.
+     *
+     * @param context  an Android {@link Context}
+     * @param expected the state the update was derived from
+     * @param updated  the updated state
+     */
+    static void update(@NonNull final Context context,
+                       @NonNull final VimeoAppState expected,
+                       @NonNull final VimeoAppState updated) {
+        Snapshot current = STATE.get();
+        if (current.mState == expected &&
+            STATE.compareAndSet(current, new Snapshot(current.mGeneration, updated)) &&
+            sInspector == null) {
+            VimeoAppStateStore.write(context, updated, sProbe, sCapabilitySource);
+        }
+    }
+
+    @NonNull
+    private static VimeoAppState load(@NonNull final Context context) {
+        FutureTask<VimeoAppState> task = LOAD.get();
+        if (task == null) {
+            FutureTask<VimeoAppState> newTask = new FutureTask<>(new Callable<VimeoAppState>() {
+                @Override
+                public VimeoAppState call() {
+                    Snapshot missed = STATE.get();
+                    if (missed.mState != null) {
+                        // A load that finished after our miss already published a state
+                        return missed.mState;
+                    }
+                    VimeoAppState state;
+                    // Probe and persist with one configuration even if it is changed meanwhile
+                    PackageProbe probe = sProbe;
+                    CapabilitySource source = sCapabilitySource;
+                    PackageInspector testInspector = sInspector;
+                    boolean traced = DeeplinkInstrumentation.beginSection(DeeplinkInstrumentation.SECTION_PROBE);
+                    try {
+                        if (testInspector != null) {
+                            // A stand-in inspector doesn't describe the device, so it is neither restored nor persisted
+                            state = testInspector.probe();
+                        } else {
+                            state = restore(context, probe, source);
+                            if (state == null) {
+                                state = inspector(context, probe, source).probe();
+                                VimeoAppStateStore.write(context, state, probe, source);
+                            }
+                        }
+                    } finally {
+                        DeeplinkInstrumentation.endSection(traced);
+                    }
+                    // Only publish into the generation that was probed; if it was invalidated meanwhile the state may
+                    // be stale, and the next lookup probes again
+                    STATE.compareAndSet(missed, new Snapshot(missed.mGeneration, state));
+                    return state;
+                }
+            });
+            if (LOAD.compareAndSet(null, newTask)) {
+                task = newTask;
+                // Register before probing so that a package change during the probe still invalidates the result;
+                // the cache holds its reference for the life of the process
+                if (sInspector == null && MONITORING.compareAndSet(false, true)) {
+                    VimeoPackageMonitor.acquire(context);
+                }
+                try {
+                    task.run();
+                } finally {
+                    LOAD.compareAndSet(task, null);
+                }
+            } else {
+                task = LOAD.get();
+                if (task == null) {
+                    // The other load finished between the two reads
+                    return get(context);
+                }
+            }
+        }
+        return await(task);
+    }
+
+    @NonNull
+    private static VimeoAppState await(@NonNull final FutureTask<VimeoAppState> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the persisted state if it was probed the same way and still describes the installed Vimeo app, null
+     * otherwise
+     */
+    @Nullable
+    private static VimeoAppState restore(@NonNull final Context context,
+                                         @NonNull final PackageProbe probe,
+                                         @NonNull final CapabilitySource source) {
+        VimeoAppState stored = VimeoAppStateStore.read(context, probe, source);
+        if (stored == null) {
+            return null;
+        }
+        // Only the package that deep links were sent to is checked; other handlers are picked up through broadcasts
+        VimeoAppState current = inspector(context, probe, source).inspect(stored.mPackageName);
+        return stored.isCurrent(current.mInstalled, current.mVersionCode, current.mLastUpdateTime) ? stored : null;
+    }
+
+    /**
+     * Use a different {@link PackageProbe} from now on. The cached state is dropped, and a persisted
+     * state is only reused if it was looked up the same way, so the next lookup uses it.
+     *
+     * @param probe the probe to use
+     */
+    static void setProbe(@NonNull final PackageProbe probe) {
+        sProbe = probe;
+        invalidate();
+    }
+
+    /**
+     * Use a different {@link CapabilitySource} from now on. The cached state is dropped, and a persisted
+     * state is only reused if it was looked up the same way, so the next lookup uses it.
+     *
+     * @param source the source of capabilities to use
+     */
+    static void setCapabilitySource(@NonNull final CapabilitySource source) {
+        sCapabilitySource = source;
+        invalidate();
+    }
+
+    /**
+     * @param context an Android {@link Context}
+     * @return the {@link PackageInspector} to ask about the Vimeo app, configured with the current probe and
+     * capability source
+     */
+    @NonNull
+    static PackageInspector inspector(@NonNull final Context context) {
+        return inspector(context, sProbe, sCapabilitySource);
+    }
+
+    @NonNull
+    private static PackageInspector inspector(@NonNull final Context context,
+                                              @NonNull final PackageProbe probe,
+                                              @NonNull final CapabilitySource source) {
+        PackageInspector inspector = sInspector;
+        if (inspector != null) {
+            return inspector;
+        }
+        return new AndroidPackageInspector(context.getPackageManager(), probe, source);
+    }
+
+    /**
+     * Answer every {@link android.content.pm.PackageManager} question from the inspector instead, e.g. an
+     * in-memory one in tests. The cached state is dropped so the next lookup uses it. While it is set, the state is
+     * neither restored from nor persisted to disk, and package broadcasts aren't listened for, so lookups need no
+     * {@link Context}.
+     *
+     * @param inspector the inspector to use, or null to go back to the {@link android.content.pm.PackageManager}
+     */
+    @VisibleForTesting
+    static void setInspector(@Nullable final PackageInspector inspector) {
+        sInspector = inspector;
+        invalidate();
+    }
+
+    /**
+     * Publish a state as if it had just been probed, e.g. one from an in-memory {@link PackageInspector}, so that
+     * lookups are answered from it without a {@link Context}. It stays cached until the next invalidation.
+     *
+     * @param state the state to publish
+     */
+    @VisibleForTesting
+    static void prime(@NonNull final VimeoAppState state) {
+        advance(state);
+    }
+
+    private VimeoAppStateCache() {
+    }
+
+    /**
+     * The cached state and the generation it belongs to, swapped as one so that a probe which raced an
+     * invalidation can't publish into the generation after it
+     */
+    private static final class Snapshot {
+
+        final int mGeneration;
+        @Nullable
+        final VimeoAppState mState;
+
+        Snapshot(final int generation, @Nullable final VimeoAppState state) {
+            mGeneration = generation;
+            mState = state;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Persists the {@link VimeoAppState} across process restarts in a small binary file in the no-backup directory,
+ * so that a cold start can reuse the version and resolved components instead of asking the
+ * {@link android.content.pm.PackageManager} again. The layout is:
+ * <pre>
+ * int     magic
+ * int     format version
+ * int     number of destinations
+ * UTF     name of the {@link PackageProbe} the state was probed with
+ * UTF     name of the {@link CapabilitySource} its capabilities were learned from
+ * UTF     package name
+ * boolean installed
+ * int     version code
+ * long    last update time
+ * int     number of intent filter data paths, -1 if they weren't discovered
+ * boolean whether any intent filter accepts every path
+ * int     type of each data path, followed by
+ * UTF     the data path
+ * long    capability bits
+ * UTF     launch activity class, empty if unresolved
+ * int     number of path shapes whose deep link activity was resolved, followed by
+ * UTF     the path shape and
+ * UTF     the deep link activity class
+ * </pre>
+ * Any file that doesn't match the current library, e.g. because the {@link Destination} table changed, is ignored,
+ * and so is a state probed with a different probe or capability source than the current ones.
+ * <p>
+ * Writes and deletes happen on a background thread, so that resolving an activity on the main thread doesn't
+ * touch the disk. They are coalesced: only the latest pending one runs, since it supersedes the others.
+ */
+final class VimeoAppStateStore {
+
+    private static final String FILE_NAME = "com.vimeo.android.deeplink.state";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x56444c53;
+    private static final int FORMAT_VERSION = 6;
+    private static final String NO_ACTIVITY = "";
+
+    private static final Object LOCK = new Object();
+
+    /**
+     * The latest write or delete that hasn't run yet
+     */
+    private static final AtomicReference<Runnable> PENDING = new AtomicReference<>();
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            Thread thread = new Thread(runnable, "VimeoDeeplink-store");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    /**
+     * A single thread, only alive while there is something to persist
+     */
+    private static final Executor EXECUTOR = new ThreadPoolExecutor(0, 1, 1L, TimeUnit.SECONDS,
+                                                                    new LinkedBlockingQueue<Runnable>(),
+                                                                    THREAD_FACTORY);
+
+    private static final Runnable RUN_PENDING = new Runnable() {
+        @Override
+        public void run() {
+            Runnable pending = PENDING.getAndSet(null);
+            if (pending != null) {
+                pending.run();
+            }
+        }
+    };
+
+    /**
+     * @param context an Android {@link Context}
+     * @param probe   the probe the state must have been probed with
+     * @param source  the source its capabilities must have been learned from
+     * @return the persisted state, or null if there is none, it can't be read or it was looked up differently
+     */
+    @Nullable
+    static VimeoAppState read(@NonNull final Context context,
+                              @NonNull final PackageProbe probe,
+                              @NonNull final CapabilitySource source) {
+        synchronized (LOCK) {
+            File file = file(context);
+            if (!file.exists()) {
+                return null;
+            }
+            DataInputStream input = null;
+            try {
+                input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION ||
+                    input.readInt() != Destination.values().length ||
+                    !input.readUTF().equals(probe.name()) || !input.readUTF().equals(source.name())) {
+                    return null;
+                }
+                String packageName = input.readUTF();
+                boolean installed = input.readBoolean();
+                int versionCode = input.readInt();
+                long lastUpdateTime = input.readLong();
+                DeeplinkPathMatcher pathMatcher = readPathMatcher(input);
+                long bits = input.readLong();
+                String launchActivity = readActivity(input);
+                int shapeCount = input.readInt();
+                if (shapeCount < 0 || shapeCount > VimeoAppState.MAX_DEEPLINK_SHAPES) {
+                    return null;
+                }
+                String[] deeplinkShapes = new String[shapeCount];
+                String[] deeplinkActivities = new String[shapeCount];
+                for (int i = 0; i < shapeCount; i++) {
+                    deeplinkShapes[i] = input.readUTF();
+                    deeplinkActivities[i] = input.readUTF();
+                }
+                VimeoAppState state = new VimeoAppState(packageName, installed, versionCode, lastUpdateTime,
+                                                        pathMatcher, launchActivity, deeplinkShapes,
+                                                        deeplinkActivities);
+                return state.mCapabilities.toBitmask() == bits ? state : null;
+            } catch (IOException e) {
+                return null;
+            } finally {
+                close(input);
+            }
+        }
+    }
+
+    /**
+     * Persist a state in the background, replacing any persisted state
+     *
+     * @param context an Android {@link Context}
+     * @param state   the state to persist
+     * @param probe   the probe the state was probed with
+     * @param source  the source its capabilities were learned from
+     */
+    static void write(@NonNull final Context context,
+                      @NonNull final VimeoAppState state,
+                      @NonNull final PackageProbe probe,
+                      @NonNull final CapabilitySource source) {
+        final Context applicationContext = applicationContext(context);
+        schedule(new Runnable() {
+            @Override
+            public void run() {
+                writeFile(applicationContext, state, probe, source);
+            }
+        });
+    }
+
+    /**
+     * Delete the persisted state in the background
+     *
+     * @param context an Android {@link Context}
+     */
+    static void delete(@NonNull final Context context) {
+        final Context applicationContext = applicationContext(context);
+        schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (LOCK) {
+                    file(applicationContext).delete();
+                }
+            }
+        });
+    }
+
+    private static void schedule(@NonNull final Runnable operation) {
+        // Only the first of a burst of operations needs to start the thread; it runs whichever is the latest
+        if (PENDING.getAndSet(operation) == null) {
+            EXECUTOR.execute(RUN_PENDING);
+        }
+    }
+
+    private static void writeFile(@NonNull final Context context,
+                                  @NonNull final VimeoAppState state,
+                                  @NonNull final PackageProbe probe,
+                                  @NonNull final CapabilitySource source) {
+        synchronized (LOCK) {
+            File file = file(context);
+            File tempFile = new File(file.getPath() + TEMP_SUFFIX);
+            DataOutputStream output = null;
+            try {
+                output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(Destination.values().length);
+                output.writeUTF(probe.name());
+                output.writeUTF(source.name());
+                output.writeUTF(state.mPackageName);
+                output.writeBoolean(state.mInstalled);
+                output.writeInt(state.mVersionCode);
+                output.writeLong(state.mLastUpdateTime);
+                writePathMatcher(output, state.mPathMatcher);
+                output.writeLong(state.mCapabilities.toBitmask());
+                writeActivity(output, state.launchActivity());
+                int shapeCount = state.deeplinkShapeCount();
+                output.writeInt(shapeCount);
+                for (int i = 0; i < shapeCount; i++) {
+                    output.writeUTF(state.deeplinkShape(i));
+                    output.writeUTF(state.deeplinkActivity(i));
+                }
+                output.close();
+                output = null;
+                if (!tempFile.renameTo(file)) {
+                    tempFile.delete();
+                }
+            } catch (IOException e) {
+                tempFile.delete();
+            } finally {
+                close(output);
+            }
+        }
+    }
+
+    @Nullable
+    private static DeeplinkPathMatcher readPathMatcher(@NonNull final DataInputStream input) throws IOException {
+        int count = input.readInt();
+        boolean matchesAll = input.readBoolean();
+        if (count < 0) {
+            return null;
+        }
+        DeeplinkPathMatcher pathMatcher = new DeeplinkPathMatcher();
+        if (matchesAll) {
+            pathMatcher.addAll();
+        }
+        for (int i = 0; i < count; i++) {
+            int type = input.readInt();
+            pathMatcher.add(input.readUTF(), type);
+        }
+        return pathMatcher;
+    }
+
+    private static void writePathMatcher(@NonNull final DataOutputStream output,
+                                         @Nullable final DeeplinkPathMatcher pathMatcher) throws IOException {
+        if (pathMatcher == null) {
+            output.writeInt(-1);
+            output.writeBoolean(false);
+            return;
+        }
+        int count = pathMatcher.patternCount();
+        output.writeInt(count);
+        output.writeBoolean(pathMatcher.matchesAll());
+        for (int i = 0; i < count; i++) {
+            output.writeInt(pathMatcher.patternType(i));
+            output.writeUTF(pathMatcher.patternPath(i));
+        }
+    }
+
+    @Nullable
+    private static String readActivity(@NonNull final DataInputStream input) throws IOException {
+        String className = input.readUTF();
+        return className.isEmpty() ? null : className;
+    }
+
+    private static void writeActivity(@NonNull final DataOutputStream output,
+                                      @Nullable final String className) throws IOException {
+        output.writeUTF(className != null ? className : NO_ACTIVITY);
+    }
+
+    /**
+     * The operations outlive the caller, so they must not hold on to an activity
+     */
+    @NonNull
+    private static Context applicationContext(@NonNull final Context context) {
+        Context applicationContext = context.getApplicationContext();
+        return applicationContext != null ? applicationContext : context;
+    }
+
+    @NonNull
+    private static File file(@NonNull final Context context) {
+        File directory = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
+                         ? context.getNoBackupFilesDir()
+                         : context.getFilesDir();
+        return new File(directory, FILE_NAME);
+    }
+
+    private static void close(@Nullable final java.io.Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // Nothing left to do with the file
+            }
+        }
+    }
+
+    private VimeoAppStateStore() {
+    }
+}
@@ -22,14 +22,18 @@
 
 package com.vimeo.android.deeplink;
 
+import android.content.ActivityNotFoundException;
 import android.content.Context;
 import android.content.Intent;
-import android.content.pm.PackageInfo;
-import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * This is a utility class to help facilitate deep linking into the Vimeo Android application
  * <p>
@@ -37,50 +41,40 @@ import android.support.annotation.Nullable;
  */
 public final class VimeoDeeplink {
 
-    private static final int VERSION_CODE_DEBUG = 0;
-    private static final int VERSION_CODE_DEEP_LINK_CATEGORY = 48;
-    private static final int VERSION_CODE_DEEP_LINK_USER = 49;
-    private static final int VERSION_CODE_DEEP_LINK_VIDEO = 48;
-    private static final int VERSION_CODE_DEEP_LINK_CATEGORIES = 74;
-    private static final int VERSION_CODE_DEEP_LINK_CHANNELS = 74;
-    private static final int VERSION_CODE_DEEP_LINK_EXPLORE = 74;
-    private static final int VERSION_CODE_DEEP_LINK_FEED = 74;
-    private static final int VERSION_CODE_DEEP_LINK_ME = 74;
-    private static final int VERSION_CODE_DEEP_LINK_NOTIFICATIONS = 1202;
-    private static final int VERSION_CODE_DEEP_LINK_NOTIFICATION_SETTINGS = 1202;
-    private static final int VERSION_CODE_DEEP_LINK_OFFLINE = 470;
-    private static final int VERSION_CODE_DEEP_LINK_ONDEMAND = 470;
-    private static final int VERSION_CODE_DEEP_LINK_PLAYLISTS = 74;
-    private static final int VERSION_CODE_DEEP_LINK_PURCHASES = 470;
-    private static final int VERSION_CODE_DEEP_LINK_UPGRADE = 2260;
-    private static final int VERSION_CODE_DEEP_LINK_UPLOAD = 74;
-    private static final int VERSION_CODE_DEEP_LINK_URL = 234;
-    private static final int VERSION_CODE_DEEP_LINK_VIDEO_MANAGER = 2340;
-    private static final int VERSION_CODE_DEEP_LINK_ALBUMS = 2340;
-    private static final int VERSION_CODE_DEEP_LINK_WATCHLATER = 470;
-
-    private static final String VIMEO_BASE_URL_HOST = "vimeo.com";
-    private static final String VIMEO_BASE_URI = "vimeo://app.vimeo.com";
-    private static final String VIMEO_APP_PACKAGE = "com.vimeo.android.videoapp";
+    static final int VERSION_CODE_DEBUG = 0;
+    static final int VERSION_CODE_ANY = Integer.MIN_VALUE;
+    static final int VERSION_CODE_DEEP_LINK_CATEGORY = 48;
+    static final int VERSION_CODE_DEEP_LINK_USER = 49;
+    static final int VERSION_CODE_DEEP_LINK_VIDEO = 48;
+    static final int VERSION_CODE_DEEP_LINK_CATEGORIES = 74;
+    static final int VERSION_CODE_DEEP_LINK_CHANNELS = 74;
+    static final int VERSION_CODE_DEEP_LINK_EXPLORE = 74;
+    static final int VERSION_CODE_DEEP_LINK_FEED = 74;
+    static final int VERSION_CODE_DEEP_LINK_ME = 74;
+    static final int VERSION_CODE_DEEP_LINK_NOTIFICATIONS = 1202;
+    static final int VERSION_CODE_DEEP_LINK_NOTIFICATION_SETTINGS = 1202;
+    static final int VERSION_CODE_DEEP_LINK_OFFLINE = 470;
+    static final int VERSION_CODE_DEEP_LINK_ONDEMAND = 470;
+    static final int VERSION_CODE_DEEP_LINK_PLAYLISTS = 74;
+    static final int VERSION_CODE_DEEP_LINK_PURCHASES = 470;
+    static final int VERSION_CODE_DEEP_LINK_UPGRADE = 2260;
+    static final int VERSION_CODE_DEEP_LINK_UPLOAD = 74;
+    static final int VERSION_CODE_DEEP_LINK_URL = 234;
+    static final int VERSION_CODE_DEEP_LINK_VIDEO_MANAGER = 2340;
+    static final int VERSION_CODE_DEEP_LINK_ALBUMS = 2340;
+    static final int VERSION_CODE_DEEP_LINK_WATCHLATER = 470;
+
+    static final String VIMEO_BASE_URL_HOST = "vimeo.com";
+    static final String VIMEO_BASE_URI = "vimeo://app.vimeo.com";
+    static final String VIMEO_APP_PACKAGE = "com.vimeo.android.videoapp";
+    /**
+     * Every Vimeo app, such as beta and internal builds, lives under this prefix
+     */
+    static final String VIMEO_PACKAGE_PREFIX = "com.vimeo.";
     private static final String PLAY_STORE_URI = "market://details?id=" + VIMEO_APP_PACKAGE;
     private static final String PLAY_STORE_WEB_URL =
             "http://play.google.com/store/apps/details?id=" + VIMEO_APP_PACKAGE;
 
-    private static final String CATEGORIES = "/categories";
-    private static final String EXPLORE = "/explore";
-    private static final String WATCH = "/watch";
-    private static final String FEED = "/feed";
-    private static final String ME = "/me";
-    private static final String NOTIFICATIONS = "/notifications";
-    private static final String NOTIFICATION_SETTINGS = "/settings/notifications";
-    private static final String OFFLINE = "/offline";
-    private static final String PLAYLISTS = "/playlists";
-    private static final String PURCHASES = "/purchases";
-    private static final String UPGRADE = "/upgrade";
-    private static final String UPLOAD = "/upload";
-    private static final String ACCOUNT = "/account";
-    private static final String VIDEO_MANAGER = "/manage/videos";
-    private static final String WATCH_LATER = "/watchlater";
 
     public static final String VIMEO_VIDEO_URI_PREFIX = "/videos/";
     public static final String VIMEO_USER_URI_PREFIX = "/users/";
@@ -89,7 +83,13 @@ public final class VimeoDeeplink {
     public static final String VIMEO_ONDEMAND_URI_PREFIX = "/ondemand/";
     public static final String VIMEO_ALBUMS_URI_POSTFIX = "/albums";
     public static final String VIMEO_ALBUM_URI_PREFIX = "/album";
-    private static final String VIMEO_ALBUM_PATTERN = "^(" + VIMEO_ALBUM_URI_PREFIX + "/)[0-9]+$";
+    static final String VIMEO_ALBUM_ID_PREFIX = VIMEO_ALBUM_URI_PREFIX + "/";
+
+    /**
+     * {@link Uri}s of the destinations that don't take a parameter, indexed by ordinal and parsed on first use
+     */
+    private static final AtomicReferenceArray<Uri> DESTINATION_URIS =
+            new AtomicReferenceArray<>(Destination.values().length);
 
 
     /**
@@ -99,13 +99,167 @@ public final class VimeoDeeplink {
      * @return true if the app is installed, false otherwise
      */
     public static boolean isVimeoAppInstalled(@NonNull final Context context) {
-        PackageManager packageManager = context.getPackageManager();
-        try {
-            packageManager.getPackageInfo(VIMEO_APP_PACKAGE, PackageManager.GET_ACTIVITIES);
-            return true;
-        } catch (PackageManager.NameNotFoundException e) {
-            return false;
+        return VimeoAppStateCache.get(context).mInstalled;
+    }
+
+    /**
+     * Choose how the installed Vimeo app is looked up, see {@link PackageProbe}. The default is
+     * {@link PackageProbe#PACKAGE_INFO}. Changing it drops the cached state of the Vimeo app.
+     *
+     * @param probe the {@link PackageProbe} to use
+     */
+    public static void setPackageProbe(@NonNull final PackageProbe probe) {
+        VimeoAppStateCache.setProbe(probe);
+    }
+
+    /**
+     * Choose where the deep links the Vimeo app can handle are learned from, see {@link CapabilitySource}. The
+     * default is {@link CapabilitySource#VERSION_CODES}. Changing it drops the cached state of the Vimeo app.
+     *
+     * @param source the {@link CapabilitySource} to use
+     */
+    public static void setCapabilitySource(@NonNull final CapabilitySource source) {
+        VimeoAppStateCache.setCapabilitySource(source);
+    }
+
+    /**
+     * Report the timing and outcome of every deep link launch to the metrics, e.g. a
+     * {@link DeeplinkLatencyHistograms}. Launches are not measured at all while no metrics are set, which is the
+     * default.
+     *
+     * @param metrics the {@link DeeplinkMetrics} to report to, or null to stop reporting
+     */
+    public static void setMetrics(@Nullable final DeeplinkMetrics metrics) {
+        DeeplinkInstrumentation.setMetrics(metrics);
+    }
+
+    /**
+     * Mark the steps of each deep link launch, such as probing the Vimeo app, {@link Uri#parse(String)},
+     * resolving the activity and starting it, as named {@link android.os.Trace} sections, so that they show up in
+     * systrace and Perfetto. Tracing is off by default and costs next to nothing while off. It needs API 18 and
+     * is ignored on older versions.
+     *
+     * @param enabled true to emit trace sections
+     */
+    public static void setTracingEnabled(final boolean enabled) {
+        DeeplinkInstrumentation.setTracing(enabled);
+    }
+
+    /**
+     * Choose how deep links open the Vimeo app when it already has a task, see {@link LaunchPolicy}. The default
+     * is {@link LaunchPolicy#CLEAR_TASK}. Calls that take a {@link LaunchPolicy} override it for that launch.
+     *
+     * @param policy the {@link LaunchPolicy} of every launch that doesn't choose its own
+     */
+    public static void setLaunchPolicy(@NonNull final LaunchPolicy policy) {
+        DeeplinkIntents.setLaunchPolicy(policy);
+    }
+
+    /**
+     * Take a snapshot of every deep link the installed Vimeo app can handle. Prefer this over the individual
+     * canHandle methods when checking several destinations at once, e.g. when building a screen.
+     *
+     * @param context an Android {@link Context}
+     * @return the {@link DeeplinkCapabilities} of the installed Vimeo app
+     */
+    @NonNull
+    public static DeeplinkCapabilities capabilities(@NonNull final Context context) {
+        return VimeoAppStateCache.get(context).mCapabilities;
+    }
+
+    /**
+     * Be told whenever the Vimeo app is installed, updated or removed in a way that changes what it can handle,
+     * instead of checking again in every {@code onResume}. The listener is not called with the current
+     * capabilities; take those with {@link #capabilities(Context)}. All listeners share one broadcast receiver,
+     * which also keeps the cached capabilities current, so once capabilities have been looked up it stays
+     * registered for the rest of the process.
+     *
+     * @param context  an Android {@link Context}
+     * @param listener the listener, called on the main thread
+     */
+    public static void subscribe(@NonNull final Context context,
+                                 @NonNull final DeeplinkCapabilities.Listener listener) {
+        VimeoPackageMonitor.subscribe(context, listener);
+    }
+
+    /**
+     * Stop notifying a listener passed to {@link #subscribe(Context, DeeplinkCapabilities.Listener)}, e.g. in
+     * {@code onDestroy}
+     *
+     * @param listener the listener to remove
+     */
+    public static void unsubscribe(@NonNull final DeeplinkCapabilities.Listener listener) {
+        VimeoPackageMonitor.unsubscribe(listener);
+    }
+
+    /**
+     * Get an asynchronous view of this API, which keeps {@link android.content.pm.PackageManager} calls off the
+     * calling thread and delivers results on the main thread
+     *
+     * @param executor the executor that runs the {@link android.content.pm.PackageManager} calls
+     * @return an {@link AsyncVimeoDeeplink} backed by the executor
+     */
+    @NonNull
+    public static AsyncVimeoDeeplink async(@NonNull final Executor executor) {
+        return new AsyncVimeoDeeplink(executor);
+    }
+
+    /**
+     * Do the expensive first-time work of this library on the executor: look up the installed Vimeo app, resolve
+     * the activities that handle its deep links, parse the fixed deep link uris and build the link router.
+     * Call this from {@link android.app.Application#onCreate()} so the first tap on a Vimeo link isn't slower
+     * than the ones after it.
+     *
+     * @param context  an Android {@link Context}
+     * @param executor the executor to do the work on
+     */
+    public static void prewarm(@NonNull final Context context, @NonNull final Executor executor) {
+        Context applicationContext = context.getApplicationContext();
+        final Context prewarmContext = applicationContext != null ? applicationContext : context;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                prewarm(prewarmContext);
+            }
+        });
+    }
+
+    /**
+     * Prepare a link for a tap that is likely to follow, e.g. when it scrolls onto the screen or on touch down.
+     * The link is routed, validated and resolved to the Vimeo app activity that opens it on the executor, so that
+     * {@link PreparedDeeplink#show(Context)} in the click handler only has to start that activity. Preparing a
+     * link that was recently prepared returns the same {@link PreparedDeeplink}.
+     *
+     * @param context  an Android {@link Context}
+     * @param link     a Vimeo app deep link, a deep link path such as "/videos/12345", or a vimeo.com url
+     * @param executor the executor to prepare the link on
+     * @return the link, which can be opened even before it is fully prepared
+     */
+    @NonNull
+    public static PreparedDeeplink prepare(@NonNull final Context context,
+                                           @NonNull final CharSequence link,
+                                           @NonNull final Executor executor) {
+        return PreparedDeeplinkCache.prepare(context, link, executor);
+    }
+
+    private static void prewarm(@NonNull final Context context) {
+        DeeplinkCapabilities capabilities = capabilities(context);
+        DeeplinkIntents.launchIntent(context);
+        for (Destination destination : Destination.values()) {
+            if (!capabilities.canHandle(destination)) {
+                continue;
+            }
+            Uri uri = destinationUri(destination);
+            String samplePath = destination.samplePath();
+            if (uri == null && samplePath != null) {
+                // Any id resolves to the same activity, which is cached per path shape
+                uri = Uri.parse(destination.uriFor(samplePath));
+            }
+            if (uri != null) {
+                DeeplinkIntents.deeplinkIntent(context, uri);
+            }
         }
+        DeeplinkRouter.route(Destination.FEED.uri(), new DeeplinkRoute());
     }
 
     /**
@@ -134,12 +288,7 @@ public final class VimeoDeeplink {
      * @return true if the app is installed, false otherwise
      */
     public static boolean openVimeoApp(@NonNull final Context context) {
-        if (isVimeoAppInstalled(context)) {
-            Intent LaunchIntent = context.getPackageManager().getLaunchIntentForPackage(VIMEO_APP_PACKAGE);
-            context.startActivity(LaunchIntent);
-            return true;
-        }
-        return false;
+        return startVimeoActivity(context, DeeplinkIntents.launchIntent(context));
     }
 
     /**
@@ -149,8 +298,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a video deep link
      */
     public static boolean canHandleVideoDeeplink(@NonNull final Context context) {
-        return vimeoAppVersion(context) >= VERSION_CODE_DEEP_LINK_VIDEO ||
-               vimeoAppVersion(context) == VERSION_CODE_DEBUG;
+        return capabilities(context).canHandle(Destination.VIDEO);
     }
 
     /**
@@ -164,11 +312,34 @@ public final class VimeoDeeplink {
      */
     public static boolean showVideoWithUri(@NonNull final Context context,
                                            @NonNull final String videoUriPath) {
-        if (videoUriPath.startsWith(VIMEO_VIDEO_URI_PREFIX) && canHandleVideoDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + videoUriPath));
-            return startActivity(context, intent);
+        return show(context, Destination.VIDEO, videoUriPath);
+    }
+
+    /**
+     * Open the Vimeo app to the video player for the specified video id
+     *
+     * @param context an Android {@link Context}
+     * @param videoId the id of the video
+     * @return true if the id is valid and the Vimeo app can handle the video deep link; false otherwise
+     */
+    public static boolean showVideo(@NonNull final Context context, final long videoId) {
+        return show(context, Destination.VIDEO, VIMEO_VIDEO_URI_PREFIX, videoId, DeeplinkUriBuilder.NO_START_TIME);
+    }
+
+    /**
+     * Open the Vimeo app to the video player for the specified video id, starting playback at the given time
+     *
+     * @param context          an Android {@link Context}
+     * @param videoId          the id of the video
+     * @param startTimeSeconds the time, in seconds, to start playback at
+     * @return true if the id and start time are valid and the Vimeo app can handle the video deep link;
+     * false otherwise
+     */
+    public static boolean showVideo(@NonNull final Context context, final long videoId, final int startTimeSeconds) {
+        if (startTimeSeconds < 0) {
+            return false;
         }
-        return false;
+        return show(context, Destination.VIDEO, VIMEO_VIDEO_URI_PREFIX, videoId, startTimeSeconds);
     }
 
     /**
@@ -178,8 +349,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a category deep link
      */
     public static boolean canHandleCategoryDeeplink(@NonNull final Context context) {
-        return vimeoAppVersion(context) >= VERSION_CODE_DEEP_LINK_CATEGORY ||
-               vimeoAppVersion(context) == VERSION_CODE_DEBUG;
+        return capabilities(context).canHandle(Destination.CATEGORY);
     }
 
     /**
@@ -193,11 +363,7 @@ public final class VimeoDeeplink {
      */
     public static boolean showCategoryWithUri(@NonNull final Context context,
                                               @NonNull final String categoryUriPath) {
-        if (categoryUriPath.startsWith(VIMEO_CATEGORY_URI_PREFIX) && canHandleCategoryDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + categoryUriPath));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.CATEGORY, categoryUriPath);
     }
 
     /**
@@ -207,8 +373,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a channel deep link
      */
     public static boolean canHandleChannelDeeplink(@NonNull final Context context) {
-        return vimeoAppVersion(context) >= VERSION_CODE_DEEP_LINK_CHANNELS ||
-               vimeoAppVersion(context) == VERSION_CODE_DEBUG;
+        return capabilities(context).canHandle(Destination.CHANNEL);
     }
 
     /**
@@ -222,11 +387,19 @@ public final class VimeoDeeplink {
      */
     public static boolean showChannelWithUri(@NonNull final Context context,
                                              @NonNull final String channelUriPath) {
-        if (channelUriPath.startsWith(VIMEO_CHANNEL_URI_PREFIX) && canHandleChannelDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + channelUriPath));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.CHANNEL, channelUriPath);
+    }
+
+    /**
+     * Open the Vimeo app to the channel screen for the specified channel id
+     *
+     * @param context   an Android {@link Context}
+     * @param channelId the id of the channel
+     * @return true if the id is valid and the Vimeo app can handle the channel deep link; false otherwise
+     */
+    public static boolean showChannel(@NonNull final Context context, final long channelId) {
+        return show(context, Destination.CHANNEL, VIMEO_CHANNEL_URI_PREFIX, channelId,
+                    DeeplinkUriBuilder.NO_START_TIME);
     }
 
     /**
@@ -236,8 +409,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a user deep link
      */
     public static boolean canHandleUserDeeplink(@NonNull final Context context) {
-        return vimeoAppVersion(context) >= VERSION_CODE_DEEP_LINK_USER ||
-               vimeoAppVersion(context) == VERSION_CODE_DEBUG;
+        return capabilities(context).canHandle(Destination.USER);
     }
 
     /**
@@ -250,11 +422,18 @@ public final class VimeoDeeplink {
      * false otherwise
      */
     public static boolean showUserWithUri(@NonNull final Context context, @NonNull final String userUriPath) {
-        if (userUriPath.startsWith(VIMEO_USER_URI_PREFIX) && canHandleUserDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + userUriPath));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.USER, userUriPath);
+    }
+
+    /**
+     * Open the Vimeo app to the user profile screen for the specified user id
+     *
+     * @param context an Android {@link Context}
+     * @param userId  the id of the user
+     * @return true if the id is valid and the Vimeo app can handle the user deep link; false otherwise
+     */
+    public static boolean showUser(@NonNull final Context context, final long userId) {
+        return show(context, Destination.USER, VIMEO_USER_URI_PREFIX, userId, DeeplinkUriBuilder.NO_START_TIME);
     }
 
     /**
@@ -264,8 +443,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle an ondemand deep link
      */
     public static boolean canHandleOnDemandDeeplink(@NonNull final Context context) {
-        return vimeoAppVersion(context) >= VERSION_CODE_DEEP_LINK_ONDEMAND ||
-               vimeoAppVersion(context) == VERSION_CODE_DEBUG;
+        return capabilities(context).canHandle(Destination.ON_DEMAND);
     }
 
     /**
@@ -279,11 +457,7 @@ public final class VimeoDeeplink {
      */
     public static boolean showOnDemandTitleWithUri(@NonNull final Context context,
                                                    @NonNull final String ondemandUriPath) {
-        if (ondemandUriPath.startsWith(VIMEO_ONDEMAND_URI_PREFIX) && canHandleOnDemandDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + ondemandUriPath));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.ON_DEMAND, ondemandUriPath);
     }
 
     /**
@@ -293,11 +467,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Categories deeplink
      */
     public static boolean showCategories(@NonNull final Context context) {
-        if (canHandleCategoiesDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + CATEGORIES));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.CATEGORIES);
     }
 
     /**
@@ -307,7 +477,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a categories deep link
      */
     public static boolean canHandleCategoiesDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.CATEGORIES);
     }
 
     /**
@@ -317,11 +487,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Explore deeplink
      */
     public static boolean showExplore(@NonNull final Context context) {
-        if (canHandleExploreDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + EXPLORE));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.EXPLORE);
     }
 
     /**
@@ -331,8 +497,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Account deeplink
      */
     public static boolean showAccount(@NonNull final Context context) {
-        Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + ACCOUNT));
-        return startActivity(context, intent);
+        return show(context, Destination.ACCOUNT);
     }
 
     /**
@@ -342,8 +507,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Watch deeplink
      */
     public static boolean showWatch(@NonNull final Context context) {
-        Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + WATCH));
-        return startActivity(context, intent);
+        return show(context, Destination.WATCH);
     }
 
     /**
@@ -353,7 +517,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a explore deep link
      */
     public static boolean canHandleExploreDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.EXPLORE);
     }
 
     /**
@@ -363,11 +527,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Feed deeplink
      */
     public static boolean showFeed(@NonNull final Context context) {
-        if (canHandleFeedDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + FEED));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.FEED);
     }
 
     /**
@@ -377,7 +537,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a feed deep link
      */
     public static boolean canHandleFeedDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.FEED);
     }
 
     /**
@@ -387,11 +547,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Me/My Profile deeplink
      */
     public static boolean showMyProfile(@NonNull final Context context) {
-        if (canHandleMeDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + ME));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.ME);
     }
 
     /**
@@ -401,7 +557,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a Me deep link
      */
     public static boolean canHandleMeDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.ME);
     }
 
     /**
@@ -411,11 +567,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Notifications deeplink
      */
     public static boolean showNotifications(@NonNull final Context context) {
-        if (canHandleNotificationsDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + NOTIFICATIONS));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.NOTIFICATIONS);
     }
 
     /**
@@ -425,7 +577,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a Notifications deep link
      */
     public static boolean canHandleNotificationsDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.NOTIFICATIONS);
     }
 
     /**
@@ -435,11 +587,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Push Notifications Settings deeplink
      */
     public static boolean showPushNotificationSettings(@NonNull final Context context) {
-        if (canHandlePushNotificationSettingsDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + NOTIFICATION_SETTINGS));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.NOTIFICATION_SETTINGS);
     }
 
     /**
@@ -449,7 +597,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a Push-Notification-Settings deep link
      */
     public static boolean canHandlePushNotificationSettingsDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.NOTIFICATION_SETTINGS);
     }
 
     /**
@@ -459,11 +607,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Offline deeplink
      */
     public static boolean showOffline(@NonNull final Context context) {
-        if (canHandleOfflineDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + OFFLINE));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.OFFLINE);
     }
 
     /**
@@ -473,7 +617,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a offline deep link
      */
     public static boolean canHandleOfflineDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.OFFLINE);
     }
 
     /**
@@ -483,11 +627,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Playlists deeplink
      */
     public static boolean showPlaylists(@NonNull final Context context) {
-        if (canHandlePlaylistDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + PLAYLISTS));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.PLAYLISTS);
     }
 
     /**
@@ -497,7 +637,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a playlist deep link
      */
     public static boolean canHandlePlaylistDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.PLAYLISTS);
     }
 
     /**
@@ -507,11 +647,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Purchases deeplink
      */
     public static boolean showPurchases(@NonNull final Context context) {
-        if (canHandlePlaylistDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + PURCHASES));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.PURCHASES);
     }
 
     /**
@@ -521,7 +657,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a purchase deep link
      */
     public static boolean canHandlePurchaseDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.PURCHASES);
     }
 
     /**
@@ -531,11 +667,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Upgrade deeplink
      */
     public static boolean showUpgrade(@NonNull final Context context) {
-        if (canHandleUpgradeDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + UPGRADE));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.UPGRADE);
     }
 
     /**
@@ -545,7 +677,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a upgrade deep link
      */
     public static boolean canHandleUpgradeDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.UPGRADE);
     }
 
     /**
@@ -555,11 +687,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Upload deeplink
      */
     public static boolean showUpload(@NonNull final Context context) {
-        if (canHandleUploadDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + UPLOAD));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.UPLOAD);
     }
 
     /**
@@ -569,7 +697,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a upload deep link
      */
     public static boolean canHandleUploadDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.UPLOAD);
     }
 
     /**
@@ -579,11 +707,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Video Manager deeplink
      */
     public static boolean showVideoManager(@NonNull final Context context) {
-        if (canHandleVideoManagerDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + VIDEO_MANAGER));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.VIDEO_MANAGER);
     }
 
     /**
@@ -593,7 +717,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a video manager deep link
      */
     public static boolean canHandleVideoManagerDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.VIDEO_MANAGER);
     }
 
     /**
@@ -603,19 +727,43 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle an albums deep link
      */
     public static boolean canHandleAlbumsDeeplink(@NonNull final Context context, @NonNull String uri) {
-        return true;
+        return capabilities(context).canHandle(Destination.ALBUMS);
     }
 
+    /**
+     * Determine if the uri points to a single album, "/album/{albumId}", or a list of albums, "{...}/albums"
+     *
+     * @param uri an album uri path
+     * @return true if the uri is a valid album uri
+     */
     public static boolean isValidAlbumUri(@NonNull final String uri) {
-        return uri.endsWith(VIMEO_ALBUMS_URI_POSTFIX) || uri.matches(VIMEO_ALBUM_PATTERN);
+        return DeeplinkPaths.isValidAlbumPath(uri);
+    }
+
+    /**
+     * Determine if the path can be deep linked into, e.g. "/videos/{videoId}", "/album/{albumId}" or "/feed".
+     * This doesn't allocate, so it is safe to call while binding views.
+     *
+     * @param path a deep link path
+     * @return true if the path belongs to one of the {@link Destination}s
+     */
+    public static boolean isValidDeeplinkPath(@NonNull final CharSequence path) {
+        return DeeplinkPaths.isValidDeeplinkPath(path);
     }
 
     public static boolean showAlbums(@NonNull final Context context, String uri) {
-        if (canHandleAlbumsDeeplink(context, uri)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + uri));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.ALBUMS, uri);
+    }
+
+    /**
+     * Open the Vimeo app to the album screen for the specified album id
+     *
+     * @param context an Android {@link Context}
+     * @param albumId the id of the album
+     * @return true if the id is valid and the Vimeo app can handle the album deep link; false otherwise
+     */
+    public static boolean showAlbum(@NonNull final Context context, final long albumId) {
+        return show(context, Destination.ALBUMS, VIMEO_ALBUM_ID_PREFIX, albumId, DeeplinkUriBuilder.NO_START_TIME);
     }
 
 
@@ -626,11 +774,7 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app opens the Watch Later deeplink
      */
     public static boolean showWatchLater(@NonNull final Context context) {
-        if (canHandleOfflineDeeplink(context)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(VIMEO_BASE_URI + WATCH_LATER));
-            return startActivity(context, intent);
-        }
-        return false;
+        return show(context, Destination.WATCH_LATER);
     }
 
     /**
@@ -640,22 +784,89 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and it can handle a watchlater deep link
      */
     public static boolean canHandleWatchLaterDeeplink(@NonNull final Context context) {
-        return true;
+        return capabilities(context).canHandle(Destination.WATCH_LATER);
     }
 
     /**
-     * Open the Vimeo App for the given url
+     * Open the Vimeo App for the given url. vimeo.com urls with an equivalent deep link, such as
+     * "https://vimeo.com/12345", are opened through the deep link so the system doesn't have to disambiguate
+     * between the browser and the app.
      *
      * @param context an Android {@link Context}
      * @param url     a url
      * @return true if the Vimeo app opens the url
      */
     public static boolean openUrl(@NonNull final Context context, @NonNull final String url) {
-        if (canHandleUrl(context, url)) {
-            Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(url));
-            return startActivity(context, intent);
+        return openUrl(context, url, DeeplinkIntents.launchPolicy());
+    }
+
+    /**
+     * Like {@link #openUrl(Context, String)}, with the {@link LaunchPolicy} of this launch
+     *
+     * @param context an Android {@link Context}
+     * @param url     a url
+     * @param policy  how the Vimeo app is opened if it already has a task
+     * @return true if the Vimeo app opens the url
+     */
+    public static boolean openUrl(@NonNull final Context context,
+                                  @NonNull final String url,
+                                  @NonNull final LaunchPolicy policy) {
+        long start = DeeplinkInstrumentation.now();
+        DeeplinkRoute route = new DeeplinkRoute();
+        if (DeeplinkRouter.route(url, route) && route.isWebUrl()) {
+            String deeplinkUri = DeeplinkUriBuilder.uri(route);
+            // Only a launched deep link is reported, a failed one falls back to opening the url
+            if (deeplinkUri != null && capabilities(context).canHandle(route.destination()) &&
+                startVimeoActivity(context, route.destination(),
+                                   DeeplinkIntents.deeplinkIntent(context, parse(route.destination(), deeplinkUri)),
+                                   policy, start)) {
+                return true;
+            }
         }
-        return false;
+        return show(context, Destination.URL, url, policy);
+    }
+
+    /**
+     * Classify many links at once, e.g. to decide which links of a feed get an "open in Vimeo" badge. The
+     * installed Vimeo app is only looked up once for the whole list.
+     *
+     * @param context an Android {@link Context}
+     * @param links   the links to classify
+     * @return whether each link is a Vimeo link, its {@link Destination}, and whether the Vimeo app can open it
+     */
+    @NonNull
+    public static DeeplinkClassifier.Classification classify(@NonNull final Context context,
+                                                             @NonNull final List<? extends CharSequence> links) {
+        return DeeplinkClassifier.classify(links, capabilities(context));
+    }
+
+    /**
+     * Classify a stream of links, reporting each one to the callback as soon as it is classified
+     *
+     * @param context  an Android {@link Context}
+     * @param links    the links to classify
+     * @param callback the callback that receives each classification on the calling thread
+     */
+    public static void classify(@NonNull final Context context,
+                                @NonNull final Iterator<? extends CharSequence> links,
+                                @NonNull final DeeplinkClassifier.Callback callback) {
+        DeeplinkClassifier.classify(links, capabilities(context), callback);
+    }
+
+    /**
+     * Translate a vimeo.com url into the equivalent Vimeo app deep link, e.g. "https://vimeo.com/12345" into
+     * "vimeo://app.vimeo.com/videos/12345". Any query or fragment is carried over.
+     *
+     * @param url a url
+     * @return the deep link uri, or null if the url isn't a vimeo.com url with an equivalent deep link
+     */
+    @Nullable
+    public static String toDeeplinkUri(@NonNull final CharSequence url) {
+        DeeplinkRoute route = new DeeplinkRoute();
+        if (DeeplinkRouter.route(url, route) && route.isWebUrl()) {
+            return DeeplinkUriBuilder.uri(route);
+        }
+        return null;
     }
 
     /**
@@ -666,21 +877,259 @@ public final class VimeoDeeplink {
      * @return true if the Vimeo app is installed and the url contains the url host scheme
      */
     public static boolean canHandleUrl(@NonNull final Context context, @NonNull final String url) {
+        return capabilities(context).canHandle(Destination.URL);
+    }
+
+    /**
+     * Open the Vimeo app to a {@link Destination} that doesn't take a parameter
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @return true if the Vimeo app can handle the destination and it was opened; false otherwise, including when
+     * the destination requires a path
+     */
+    public static boolean show(@NonNull final Context context, @NonNull final Destination destination) {
+        return show(context, destination, DeeplinkIntents.launchPolicy());
+    }
+
+    /**
+     * Like {@link #show(Context, Destination)}, with the {@link LaunchPolicy} of this launch
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @param policy      how the Vimeo app is opened if it already has a task
+     * @return true if the Vimeo app can handle the destination and it was opened; false otherwise
+     */
+    public static boolean show(@NonNull final Context context,
+                               @NonNull final Destination destination,
+                               @NonNull final LaunchPolicy policy) {
+        long start = DeeplinkInstrumentation.now();
+        return startVimeoActivity(context, destination, intentFor(context, destination, start), policy, start);
+    }
+
+    /**
+     * Open the Vimeo app to a parameterized {@link Destination}
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @param path        the path to open, which must start with {@link Destination#path()}
+     * @return true if the path belongs to the destination and the Vimeo app can handle it; false otherwise
+     */
+    public static boolean show(@NonNull final Context context,
+                               @NonNull final Destination destination,
+                               @NonNull final String path) {
+        return show(context, destination, path, DeeplinkIntents.launchPolicy());
+    }
+
+    /**
+     * Like {@link #show(Context, Destination, String)}, with the {@link LaunchPolicy} of this launch
+     *
+     * @param context     an Android {@link Context}
+     * @param destination the {@link Destination} to open
+     * @param path        the path to open, which must start with {@link Destination#path()}
+     * @param policy      how the Vimeo app is opened if it already has a task
+     * @return true if the path belongs to the destination and the Vimeo app can handle it; false otherwise
+     */
+    public static boolean show(@NonNull final Context context,
+                               @NonNull final Destination destination,
+                               @NonNull final String path,
+                               @NonNull final LaunchPolicy policy) {
+        long start = DeeplinkInstrumentation.now();
+        Intent intent = intentFor(context, destination, path, start);
+        return startVimeoActivity(context, destination, intent, policy, start);
+    }
+
+    private static boolean show(@NonNull final Context context,
+                                @NonNull final Destination destination,
+                                @NonNull final String prefix,
+                                final long id,
+                                final int startTimeSeconds) {
+        long start = DeeplinkInstrumentation.now();
+        Intent intent = intentFor(context, destination, prefix, id, startTimeSeconds, start);
+        return startVimeoActivity(context, destination, intent, DeeplinkIntents.launchPolicy(), start);
+    }
+
+    /**
+     * @param start the time the launch started, from {@link DeeplinkInstrumentation#now()}
+     * @return the intent opening a destination that doesn't take a parameter, or null if it can't be opened
+     */
+    @Nullable
+    static Intent intentFor(@NonNull final Context context, @NonNull final Destination destination, final long start) {
+        if (!isLaunchable(context, destination, destination.uri() != null, start)) {
+            return null;
+        }
+        long parsing = DeeplinkInstrumentation.now();
+        Uri uri = destinationUri(destination);
+        DeeplinkInstrumentation.phase(destination, DeeplinkMetrics.Phase.PARSE, parsing);
+        return resolve(context, destination, uri, start);
+    }
+
+    /**
+     * @param start the time the launch started, from {@link DeeplinkInstrumentation#now()}
+     * @return the intent opening a path of a parameterized destination, or null if it can't be opened
+     */
+    @Nullable
+    static Intent intentFor(@NonNull final Context context,
+                            @NonNull final Destination destination,
+                            @NonNull final String path,
+                            final long start) {
+        boolean validPath = destination.isParameterized() && destination.accepts(path);
+        if (!isLaunchable(context, destination, validPath, start)) {
+            return null;
+        }
+        return resolve(context, destination, parse(destination, destination.uriFor(path)), start);
+    }
+
+    /**
+     * @param start the time the launch started, from {@link DeeplinkInstrumentation#now()}
+     * @return the intent opening the id of a parameterized destination, or null if it can't be opened
+     */
+    @Nullable
+    static Intent intentFor(@NonNull final Context context,
+                            @NonNull final Destination destination,
+                            @NonNull final String prefix,
+                            final long id,
+                            final int startTimeSeconds,
+                            final long start) {
+        if (!isLaunchable(context, destination, id > 0, start)) {
+            return null;
+        }
+        return resolve(context, destination, parse(destination, DeeplinkUriBuilder.uri(prefix, id, startTimeSeconds)),
+                       start);
+    }
+
+    /**
+     * Check that the Vimeo app can open a deep link to the destination, reporting why not to the metrics
+     */
+    private static boolean isLaunchable(@NonNull final Context context,
+                                        @NonNull final Destination destination,
+                                        final boolean validPath,
+                                        final long start) {
+        VimeoAppState state = VimeoAppStateCache.get(context);
+        long probed = DeeplinkInstrumentation.phase(destination, DeeplinkMetrics.Phase.PROBE, start);
+        DeeplinkMetrics.Outcome failure = null;
+        if (!validPath) {
+            failure = DeeplinkMetrics.Outcome.INVALID_PATH;
+        } else if (!state.mInstalled && destination != Destination.URL) {
+            // Urls open in whichever app handles them, which need not be the Vimeo app
+            failure = DeeplinkMetrics.Outcome.NOT_INSTALLED;
+        } else if (destination != Destination.URL && !state.mCapabilities.canHandle(destination)) {
+            failure = DeeplinkMetrics.Outcome.VERSION_TOO_OLD;
+        }
+        DeeplinkInstrumentation.phase(destination, DeeplinkMetrics.Phase.VALIDATION, probed);
+        if (failure != null) {
+            DeeplinkInstrumentation.outcome(destination, failure, start);
+            return false;
+        }
         return true;
     }
 
-    private static int vimeoAppVersion(@NonNull final Context context) {
-        if (isVimeoAppInstalled(context)) {
-            PackageManager packageManager = context.getPackageManager();
-            try {
-                PackageInfo packageInfo =
-                        packageManager.getPackageInfo(VIMEO_APP_PACKAGE, PackageManager.GET_ACTIVITIES);
-                return packageInfo.versionCode;
-            } catch (PackageManager.NameNotFoundException e) {
-                return 0;
+    @Nullable
+    private static Intent resolve(@NonNull final Context context,
+                                  @NonNull final Destination destination,
+                                  @NonNull final Uri uri,
+                                  final long start) {
+        long resolving = DeeplinkInstrumentation.now();
+        Intent intent;
+        if (destination == Destination.URL) {
+            // Any url can be opened, so let the system pick the app that handles it
+            intent = DeeplinkIntents.implicitIntent(context, uri);
+        } else {
+            intent = DeeplinkIntents.deeplinkIntent(context, uri);
+        }
+        DeeplinkInstrumentation.phase(destination, DeeplinkMetrics.Phase.RESOLVE, resolving);
+        if (intent == null) {
+            DeeplinkInstrumentation.outcome(destination, DeeplinkMetrics.Outcome.UNRESOLVED, start);
+        }
+        return intent;
+    }
+
+    /**
+     * @param destination a {@link Destination}
+     * @return the cached {@link Uri} of a destination that doesn't take a parameter, null for parameterized ones
+     */
+    @Nullable
+    static Uri destinationUri(@NonNull final Destination destination) {
+        Uri uri = DESTINATION_URIS.get(destination.ordinal());
+        if (uri == null) {
+            String uriString = destination.uri();
+            if (uriString == null) {
+                return null;
+            }
+            // Uri is immutable, so racing threads parsing the same string is harmless
+            uri = parse(uriString);
+            DESTINATION_URIS.set(destination.ordinal(), uri);
+        }
+        return uri;
+    }
+
+    /**
+     * {@link #parse(String)} as a step of a launch, reported to the metrics as {@link DeeplinkMetrics.Phase#PARSE}
+     */
+    @NonNull
+    private static Uri parse(@NonNull final Destination destination, @NonNull final String uri) {
+        long parsing = DeeplinkInstrumentation.now();
+        Uri parsed = parse(uri);
+        DeeplinkInstrumentation.phase(destination, DeeplinkMetrics.Phase.PARSE, parsing);
+        return parsed;
+    }
+
+    @NonNull
+    static Uri parse(@NonNull final String uri) {
+        boolean traced = DeeplinkInstrumentation.beginSection(DeeplinkInstrumentation.SECTION_PARSE);
+        try {
+            return Uri.parse(uri);
+        } finally {
+            DeeplinkInstrumentation.endSection(traced);
+        }
+    }
+
+    /**
+     * Start an intent, usually pinned to a cached Vimeo app component. If that component is gone, e.g. because the
+     * app changed without us seeing the package broadcast, the cache is dropped so the next launch resolves again.
+     * An implicit intent, such as that of a {@link Destination#URL}, says nothing about the cache, so its failure
+     * keeps it.
+     */
+    static boolean startVimeoActivity(@NonNull final Context context, @Nullable final Intent intent) {
+        if (intent == null) {
+            return false;
+        }
+        boolean traced = DeeplinkInstrumentation.beginSection(DeeplinkInstrumentation.SECTION_START);
+        try {
+            context.startActivity(intent);
+            return true;
+        } catch (ActivityNotFoundException e) {
+            if (intent.getComponent() != null) {
+                VimeoAppStateCache.invalidate();
             }
+            return false;
+        } finally {
+            DeeplinkInstrumentation.endSection(traced);
+        }
+    }
+
+    /**
+     * Like {@link #startVimeoActivity(Context, Intent)}, adding the launch flags of the policy and reporting the
+     * launch to the metrics. A null intent was already reported when it couldn't be built.
+     *
+     * @param start the time the launch started, from {@link DeeplinkInstrumentation#now()}
+     */
+    static boolean startVimeoActivity(@NonNull final Context context,
+                                      @NonNull final Destination destination,
+                                      @Nullable final Intent intent,
+                                      @NonNull final LaunchPolicy policy,
+                                      final long start) {
+        if (intent == null) {
+            return false;
         }
-        return 0;
+        policy.apply(intent);
+        long starting = DeeplinkInstrumentation.now();
+        boolean started = startVimeoActivity(context, intent);
+        DeeplinkInstrumentation.phase(destination, DeeplinkMetrics.Phase.START_ACTIVITY, starting);
+        DeeplinkInstrumentation.outcome(destination,
+                                        started ? DeeplinkMetrics.Outcome.LAUNCHED : DeeplinkMetrics.Outcome.UNRESOLVED,
+                                        start);
+        return started;
     }
 
     private static boolean startActivity(@NonNull final Context context, @Nullable final Intent intent) {
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches package broadcasts for the Vimeo app through a single {@link BroadcastReceiver} shared by the
+ * {@link VimeoAppStateCache} and every {@link DeeplinkCapabilities.Listener}. The receiver is registered when the
+ * first reference is acquired and unregistered when the last one is released. The cache takes a reference the
+ * first time it probes the Vimeo app and keeps it, so from then on the receiver stays registered for the rest of
+ * the process.
+ * <p>
+ * A broadcast only drops the cached state on the main thread. The Vimeo app is probed again on a background
+ * thread, and listeners are notified back on the main thread, only when their capabilities changed, so the
+ * replace sequence of removed, added and replaced broadcasts results in a single notification.
+ */
+final class VimeoPackageMonitor {
+
+    private static final String PACKAGE_SCHEME = "package";
+
+    private static final Object LOCK = new Object();
+    private static final CopyOnWriteArrayList<DeeplinkCapabilities.Listener> LISTENERS =
+            new CopyOnWriteArrayList<>();
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            Thread thread = new Thread(runnable, "VimeoDeeplink-monitor");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    /**
+     * Probes the Vimeo app after each broadcast, one at a time and in order; its thread stops once idle
+     */
+    private static final Executor EXECUTOR = new ThreadPoolExecutor(0, 1, 1L, TimeUnit.SECONDS,
+                                                                    new LinkedBlockingQueue<Runnable>(),
+                                                                    THREAD_FACTORY);
+
+    private static int sReferences;
+    @Nullable
+    private static Context sContext;
+    /**
+     * The capabilities listeners were last told about, or null if they aren't known
+     */
+    @Nullable
+    private static volatile DeeplinkCapabilities sNotified;
+
+    private static final BroadcastReceiver PACKAGE_RECEIVER = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Uri data = intent.getData();
+            if (data == null || !VimeoAppStateCache.isVimeoPackage(data.getSchemeSpecificPart())) {
+                return;
+            }
+            VimeoAppState previous = VimeoAppStateCache.peek();
+            VimeoAppStateCache.onPackageChanged(context);
+            if (LISTENERS.isEmpty()) {
+                sNotified = null;
+                return;
+            }
+            final DeeplinkCapabilities known = previous != null ? previous.mCapabilities : null;
+            Context applicationContext = context.getApplicationContext();
+            final Context probeContext = applicationContext != null ? applicationContext : context;
+            // Keep the process alive until the probe is done
+            final PendingResult result = goAsync();
+            EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        notifyIfChanged(probeContext, known);
+                    } finally {
+                        result.finish();
+                    }
+                }
+            });
+        }
+    };
+
+    /**
+     * Probe the Vimeo app and tell listeners on the main thread if its capabilities changed
+     *
+     * @param known the capabilities cached before the broadcast, used if listeners weren't told about any yet
+     */
+    @WorkerThread
+    private static void notifyIfChanged(@NonNull final Context context, @Nullable final DeeplinkCapabilities known) {
+        final DeeplinkCapabilities capabilities = VimeoAppStateCache.get(context).mCapabilities;
+        DeeplinkCapabilities notified = sNotified;
+        if (capabilities.equals(notified != null ? notified : known)) {
+            return;
+        }
+        sNotified = capabilities;
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                for (DeeplinkCapabilities.Listener listener : LISTENERS) {
+                    listener.onCapabilitiesChanged(capabilities);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param context  an Android {@link Context}
+     * @param listener the listener to notify on the main thread whenever the capabilities change
+     */
+    static void subscribe(@NonNull final Context context, @NonNull final DeeplinkCapabilities.Listener listener) {
+        synchronized (LOCK) {
+            if (LISTENERS.addIfAbsent(listener)) {
+                acquire(context);
+            }
+        }
+    }
+
+    /**
+     * @param listener a listener passed to {@link #subscribe(Context, DeeplinkCapabilities.Listener)}
+     */
+    static void unsubscribe(@NonNull final DeeplinkCapabilities.Listener listener) {
+        synchronized (LOCK) {
+            if (LISTENERS.remove(listener)) {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Take a reference to the receiver, registering it if this is the first one
+     *
+     * @param context an Android {@link Context}
+     */
+    static void acquire(@NonNull final Context context) {
+        synchronized (LOCK) {
+            if (sReferences++ > 0) {
+                return;
+            }
+            Context applicationContext = context.getApplicationContext();
+            sContext = applicationContext != null ? applicationContext : context;
+            IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+            filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+            filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+            filter.addDataScheme(PACKAGE_SCHEME);
+            sContext.registerReceiver(PACKAGE_RECEIVER, filter);
+        }
+    }
+
+    /**
+     * Drop a reference to the receiver, unregistering it if this was the last one
+     */
+    static void release() {
+        synchronized (LOCK) {
+            if (sReferences == 0 || --sReferences > 0) {
+                return;
+            }
+            if (sContext != null) {
+                sContext.unregisterReceiver(PACKAGE_RECEIVER);
+                sContext = null;
+            }
+        }
+    }
+
+    private VimeoPackageMonitor() {
+    }
+}
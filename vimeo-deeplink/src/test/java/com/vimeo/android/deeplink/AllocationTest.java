@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The steady-state checks of the library must not allocate: the canHandle methods, path validation and routing.
+ * These are called while binding list items, where any garbage per call adds up to GC churn.
+ * <p>
+ * Each check is warmed up, then run many times between two readings of the bytes allocated by this thread. The unit
+ * tests run with escape analysis off, {@code -XX:-DoEscapeAnalysis}, so that the JIT can't hide an allocation that
+ * ART would make.
+ */
+public class AllocationTest {
+
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int ITERATIONS = 100000;
+
+    /**
+     * The state is primed into {@link VimeoAppStateCache}, so the context-taking methods never use their context
+     */
+    private static final Context NO_CONTEXT = null;
+
+    private static final Destination[] DESTINATIONS = Destination.values();
+
+    private static final String[] PATHS = {
+            "/videos/149058362", "/album/3951", "/users/staff/albums", "/me/albums", "/channels/staffpicks",
+            "/watchlater", "/settings/notifications", "/album/39x1", "/unknown", ""};
+
+    private static final String[] LINKS = {
+            "https://vimeo.com/149058362", "https://www.vimeo.com/channels/staffpicks/149058362?autoplay=1",
+            "https://vimeo.com/showcase/3951", "vimeo://app.vimeo.com/users/staff/albums", "/watchlater",
+            "https://example.com/149058362"};
+
+    /**
+     * A call that must not allocate once warmed up
+     */
+    private interface Check {
+
+        /**
+         * @param iteration the iteration, to vary the input
+         * @return the result of the call, so that it can't be optimized away
+         */
+        boolean run(int iteration);
+    }
+
+    private static int sSink;
+
+    private ThreadMXBean mThreads;
+
+    @Before
+    public void setUp() {
+        mThreads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue("This JVM can't measure the bytes allocated by a thread",
+                   mThreads.isThreadAllocatedMemorySupported());
+        mThreads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        VimeoAppStateCache.invalidate();
+    }
+
+    @Test
+    public void steadyStateChecksDontAllocate() {
+        InMemoryPackageInspector inspector = new InMemoryPackageInspector()
+                .install(VimeoDeeplink.VIMEO_APP_PACKAGE, Integer.MAX_VALUE, "DeeplinkActivity", "LaunchActivity");
+        VimeoAppStateCache.prime(inspector.probe());
+        DeeplinkCapabilities filterCapabilities = inspector.declareDestinationPaths().probe().mCapabilities;
+
+        long baseline = allocatedBytes(mThreads, new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return (iteration & 1) == 0;
+            }
+        });
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Check> entry : checks(filterCapabilities).entrySet()) {
+            long allocated = allocatedBytes(mThreads, entry.getValue()) - baseline;
+            // An allocation per call is at least a header per iteration; anything less is measurement noise
+            if (allocated >= ITERATIONS) {
+                failures.add(String.format("%s allocates %d bytes over %d calls", entry.getKey(), allocated,
+                                           ITERATIONS));
+            }
+        }
+        if (!failures.isEmpty()) {
+            fail(failures.toString());
+        }
+    }
+
+    @NonNull
+    private static Map<String, Check> checks(@NonNull final DeeplinkCapabilities filterCapabilities) {
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("VimeoDeeplink.isVimeoAppInstalled(Context)", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return VimeoDeeplink.isVimeoAppInstalled(NO_CONTEXT);
+            }
+        });
+        checks.put("VimeoDeeplink.canHandle*Deeplink(Context)", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return VimeoDeeplink.canHandleVideoDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleCategoryDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleChannelDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleUserDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleOnDemandDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleCategoiesDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleExploreDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleFeedDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleMeDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleNotificationsDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandlePushNotificationSettingsDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleOfflineDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandlePlaylistDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandlePurchaseDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleUpgradeDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleUploadDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleVideoManagerDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleAlbumsDeeplink(NO_CONTEXT, PATHS[iteration % PATHS.length]) &
+                       VimeoDeeplink.canHandleWatchLaterDeeplink(NO_CONTEXT) &
+                       VimeoDeeplink.canHandleUrl(NO_CONTEXT, LINKS[iteration % LINKS.length]);
+            }
+        });
+        checks.put("DeeplinkCapabilities.canHandle(Destination)", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return VimeoDeeplink.capabilities(NO_CONTEXT).canHandle(DESTINATIONS[iteration % DESTINATIONS.length]);
+            }
+        });
+        checks.put("DeeplinkCapabilities.canHandle(CharSequence), routed", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return VimeoDeeplink.capabilities(NO_CONTEXT).canHandle(PATHS[iteration % PATHS.length]);
+            }
+        });
+        checks.put("DeeplinkCapabilities.canHandle(CharSequence), intent filters", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return filterCapabilities.canHandle(PATHS[iteration % PATHS.length]);
+            }
+        });
+        checks.put("VimeoDeeplink.isValidAlbumUri(String)", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return VimeoDeeplink.isValidAlbumUri(PATHS[iteration % PATHS.length]);
+            }
+        });
+        checks.put("VimeoDeeplink.isValidDeeplinkPath(CharSequence)", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return VimeoDeeplink.isValidDeeplinkPath(PATHS[iteration % PATHS.length]);
+            }
+        });
+        final DeeplinkRoute route = new DeeplinkRoute();
+        checks.put("DeeplinkRouter.route(CharSequence, DeeplinkRoute)", new Check() {
+            @Override
+            public boolean run(final int iteration) {
+                return DeeplinkRouter.route(LINKS[iteration % LINKS.length], route);
+            }
+        });
+        return checks;
+    }
+
+    /**
+     * @return the bytes this thread allocated while making {@link #ITERATIONS} warmed-up calls of the check
+     */
+    private static long allocatedBytes(@NonNull final ThreadMXBean threads,
+                                       @NonNull final Check check) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += check.run(i) ? 1 : 0;
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += check.run(i) ? 1 : 0;
+        }
+        long after = threads.getThreadAllocatedBytes(threadId);
+        sSink += sink;
+        return after - before;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vimeo.android.deeplink;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DeeplinkClassifierTest {
+
+    private static final DeeplinkCapabilities ALL = DeeplinkCapabilities.evaluate(true, Integer.MAX_VALUE);
+    private static final DeeplinkCapabilities NOT_INSTALLED = DeeplinkCapabilities.evaluate(false, 0);
+
+    private ExecutorService mExecutor;
+
+    @Before
+    public void setUp() {
+        mExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void classifiesLinks() {
+        List<String> links = Arrays.asList("https://vimeo.com/12345", "https://example.com", null, "/watchlater");
+        DeeplinkClassifier.Classification classification = DeeplinkClassifier.classify(links, ALL);
+
+        assertEquals(4, classification.size());
+        assertEquals(Destination.VIDEO, classification.destination(0));
+        assertEquals(12345L, classification.id(0));
+        assertTrue(classification.isSupported(0));
+        assertFalse(classification.isVimeoLink(1));
+        assertFalse(classification.isSupported(1));
+        assertNull(classification.destination(2));
+        assertEquals(DeeplinkRoute.NO_ID, classification.id(2));
+        assertEquals(Destination.WATCH_LATER, classification.destination(3));
+
+        assertFalse(DeeplinkClassifier.classify(links, NOT_INSTALLED).isSupported(0));
+    }
+
+    @Test
+    public void parallelMatchesSequential() throws InterruptedException {
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            links.add(i % 3 == 0 ? "https://vimeo.com/" + i : i % 3 == 1 ? "/users/" + i : "https://example.com");
+        }
+        DeeplinkClassifier.Classification sequential = DeeplinkClassifier.classify(links, ALL);
+        DeeplinkClassifier.Classification parallel = DeeplinkClassifier.classify(links, ALL, mExecutor, 4);
+        for (int i = 0; i < links.size(); i++) {
+            assertEquals(sequential.destination(i), parallel.destination(i));
+            assertEquals(sequential.id(i), parallel.id(i));
+            assertEquals(sequential.isSupported(i), parallel.isSupported(i));
+        }
+    }
+
+    @Test
+    public void parallelRethrowsFailedTask() throws InterruptedException {
+        final IllegalStateException failure = new IllegalStateException("link 700");
+        List<String> links = new AbstractList<String>() {
+            @Override
+            public String get(final int index) {
+                if (index == 700) {
+                    throw failure;
+                }
+                return "https://vimeo.com/" + index;
+            }
+
+            @Override
+            public int size() {
+                return 1000;
+            }
+        };
+        try {
+            DeeplinkClassifier.classify(links, ALL, mExecutor, 4);
+            fail("A partial classification was returned");
+        } catch (IllegalStateException e) {
+            assertEquals(failure, e);
+        }
+    }
+}
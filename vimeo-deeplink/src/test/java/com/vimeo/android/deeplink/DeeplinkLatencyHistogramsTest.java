@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vimeo.android.deeplink;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeeplinkLatencyHistogramsTest {
+
+    private static final long MILLIS = 1000000L;
+
+    @Test
+    public void keepsLaunchesPerDestination() {
+        DeeplinkLatencyHistograms histograms = new DeeplinkLatencyHistograms();
+        for (int i = 1; i <= 100; i++) {
+            histograms.onOutcome(Destination.VIDEO, DeeplinkMetrics.Outcome.LAUNCHED, i * MILLIS);
+        }
+        histograms.onOutcome(Destination.VIDEO, DeeplinkMetrics.Outcome.NOT_INSTALLED, 1L);
+
+        assertEquals(100L, histograms.count(Destination.VIDEO, DeeplinkMetrics.Outcome.LAUNCHED));
+        assertEquals(1L, histograms.count(Destination.VIDEO, DeeplinkMetrics.Outcome.NOT_INSTALLED));
+        assertWithinBucket(50 * MILLIS, histograms.p50Nanos(Destination.VIDEO));
+        assertWithinBucket(99 * MILLIS, histograms.p99Nanos(Destination.VIDEO));
+        assertEquals(-1L, histograms.p50Nanos(Destination.USER));
+    }
+
+    @Test
+    public void keepsPhasesPerDestination() {
+        DeeplinkLatencyHistograms histograms = new DeeplinkLatencyHistograms();
+        histograms.onPhase(Destination.VIDEO, DeeplinkMetrics.Phase.RESOLVE, 8 * MILLIS);
+        histograms.onPhase(Destination.VIDEO, DeeplinkMetrics.Phase.PARSE, 20000L);
+        histograms.onPhase(Destination.USER, DeeplinkMetrics.Phase.RESOLVE, 2 * MILLIS);
+
+        assertWithinBucket(8 * MILLIS, histograms.p50Nanos(Destination.VIDEO, DeeplinkMetrics.Phase.RESOLVE));
+        assertWithinBucket(20000L, histograms.p99Nanos(Destination.VIDEO, DeeplinkMetrics.Phase.PARSE));
+        assertWithinBucket(2 * MILLIS, histograms.p50Nanos(Destination.USER, DeeplinkMetrics.Phase.RESOLVE));
+        assertEquals(-1L, histograms.p50Nanos(Destination.VIDEO, DeeplinkMetrics.Phase.PROBE));
+        // Phases aren't launches
+        assertEquals(-1L, histograms.p50Nanos(Destination.VIDEO));
+
+        histograms.reset();
+        assertEquals(-1L, histograms.p50Nanos(Destination.VIDEO, DeeplinkMetrics.Phase.RESOLVE));
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int bucket = 0; bucket < 191; bucket++) {
+            long lower = bucket == 0 ? 0L : DeeplinkLatencyHistograms.upperBoundMicros(bucket - 1);
+            long upper = DeeplinkLatencyHistograms.upperBoundMicros(bucket);
+            assertEquals(bucket, DeeplinkLatencyHistograms.bucket(lower));
+            assertEquals(bucket, DeeplinkLatencyHistograms.bucket(upper - 1));
+        }
+    }
+
+    /**
+     * A percentile is the upper bound of its bucket, within 12.5% of the recorded value
+     */
+    private static void assertWithinBucket(long expectedNanos, long actualNanos) {
+        assertTrue(expectedNanos + " ~ " + actualNanos,
+                   actualNanos > expectedNanos && actualNanos <= expectedNanos + expectedNanos / 8 + 1000L);
+    }
+}
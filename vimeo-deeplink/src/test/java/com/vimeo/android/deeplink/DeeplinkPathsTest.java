@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vimeo.android.deeplink;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeeplinkPathsTest {
+
+    @Test
+    public void validDeeplinkPathsAgreeWithRouter() {
+        String[] paths = {
+                "/videos/12345", "/videos/12345/", "/users/staff", "/users/678/albums", "/channels/staffpicks",
+                "/categories/animation", "/ondemand/film", "/album/42", "/me/albums", "/watchlater", "/feed/",
+                "/albums", "/ondemand/film/123", "/users//albums", "/videos/abc", "/videos/1234567890123456789",
+                "/nowhere", "/", "",
+        };
+        for (String path : paths) {
+            assertEquals(path, DeeplinkRouter.destination(path) != null, DeeplinkPaths.isValidDeeplinkPath(path));
+        }
+    }
+
+    @Test
+    public void validDeeplinkPaths() {
+        for (Destination destination : Destination.values()) {
+            String path = destination.path();
+            if (path != null && !destination.isParameterized()) {
+                assertTrue(path, DeeplinkPaths.isValidDeeplinkPath(path));
+            }
+        }
+        assertTrue(DeeplinkPaths.isValidDeeplinkPath("/videos/12345"));
+        assertTrue(DeeplinkPaths.isValidDeeplinkPath("/users/678/albums"));
+        assertTrue(DeeplinkPaths.isValidDeeplinkPath("/album/42"));
+    }
+
+    @Test
+    public void invalidDeeplinkPaths() {
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath("/albums"));
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath("/ondemand/foo/123"));
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath("/users//albums"));
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath("/videos/12345?autoplay=1"));
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath("/feed#top"));
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath("videos/12345"));
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath("vimeo://app.vimeo.com/videos/12345"));
+        assertFalse(DeeplinkPaths.isValidDeeplinkPath(""));
+    }
+
+    @Test
+    public void albumPaths() {
+        assertTrue(DeeplinkPaths.isValidAlbumPath("/album/42"));
+        assertTrue(DeeplinkPaths.isValidAlbumPath("/album/42/"));
+        assertTrue(DeeplinkPaths.isValidAlbumPath("/users/678/albums"));
+        assertFalse(DeeplinkPaths.isValidAlbumPath("/album/abc"));
+        assertFalse(DeeplinkPaths.isValidAlbumPath("/videos/12345"));
+    }
+
+    @Test
+    public void shapes() {
+        assertEquals("/videos/*", DeeplinkPaths.shape("/videos/12345"));
+        assertEquals("/users/*/*", DeeplinkPaths.shape("/users/678/albums"));
+        assertEquals("/feed", DeeplinkPaths.shape("/feed"));
+    }
+}
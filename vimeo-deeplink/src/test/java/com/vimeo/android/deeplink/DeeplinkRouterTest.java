@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vimeo.android.deeplink;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DeeplinkRouterTest {
+
+    private static final String APP = "vimeo://app.vimeo.com";
+    private static final String WEB = "https://vimeo.com";
+
+    @Test
+    public void routesEveryDestinationWithoutParameter() {
+        for (Destination destination : Destination.values()) {
+            String path = destination.path();
+            if (path == null || destination.isParameterized()) {
+                continue;
+            }
+            assertRoute(destination, DeeplinkRoute.NO_ID, null, path);
+            assertRoute(destination, DeeplinkRoute.NO_ID, null, APP + path);
+        }
+    }
+
+    @Test
+    public void routesAppPatterns() {
+        assertRoute(Destination.VIDEO, 12345, "12345", APP + "/videos/12345");
+        assertRoute(Destination.USER, 678, "678", APP + "/users/678");
+        assertRoute(Destination.USER, DeeplinkRoute.NO_ID, "staff", APP + "/users/staff");
+        assertRoute(Destination.ALBUMS, DeeplinkRoute.NO_ID, "678", APP + "/users/678/albums");
+        assertRoute(Destination.CHANNEL, DeeplinkRoute.NO_ID, "staffpicks", APP + "/channels/staffpicks");
+        assertRoute(Destination.CATEGORY, DeeplinkRoute.NO_ID, "animation", APP + "/categories/animation");
+        assertRoute(Destination.ON_DEMAND, DeeplinkRoute.NO_ID, "film", APP + "/ondemand/film");
+        assertRoute(Destination.ALBUMS, 42, "42", APP + "/album/42");
+        assertRoute(Destination.ALBUMS, DeeplinkRoute.NO_ID, null, APP + "/me/albums");
+    }
+
+    @Test
+    public void routesWebPatterns() {
+        assertRoute(Destination.VIDEO, 12345, "12345", WEB + "/12345");
+        assertRoute(Destination.VIDEO, 12345, "12345", "http://www.vimeo.com/12345");
+        assertRoute(Destination.VIDEO, 12345, "12345", "vimeo.com/12345");
+        assertRoute(Destination.CHANNEL, DeeplinkRoute.NO_ID, "staffpicks", WEB + "/channels/staffpicks");
+        assertRoute(Destination.VIDEO, 12345, "12345", WEB + "/channels/staffpicks/12345");
+        assertRoute(Destination.CATEGORY, DeeplinkRoute.NO_ID, "animation", WEB + "/categories/animation");
+        assertRoute(Destination.ON_DEMAND, DeeplinkRoute.NO_ID, "film", WEB + "/ondemand/film");
+        assertRoute(Destination.ALBUMS, 42, "42", WEB + "/album/42");
+        assertRoute(Destination.ALBUMS, 42, "42", WEB + "/showcase/42");
+        assertRoute(Destination.CATEGORIES, DeeplinkRoute.NO_ID, null, WEB + "/categories");
+        assertRoute(Destination.WATCH_LATER, DeeplinkRoute.NO_ID, null, WEB + "/watchlater");
+        assertRoute(Destination.UPLOAD, DeeplinkRoute.NO_ID, null, WEB + "/upload");
+        assertTrue(DeeplinkRouter.route(WEB + "/12345").isWebUrl());
+        assertFalse(DeeplinkRouter.route(APP + "/videos/12345").isWebUrl());
+    }
+
+    @Test
+    public void ignoresQueryAndFragment() {
+        assertRoute(Destination.VIDEO, 12345, "12345", WEB + "/12345?autoplay=1");
+        assertRoute(Destination.VIDEO, 12345, "12345", WEB + "/12345#t=30");
+    }
+
+    @Test
+    public void ignoresOneTrailingSlash() {
+        assertRoute(Destination.VIDEO, 12345, "12345", APP + "/videos/12345/");
+        assertRoute(Destination.WATCH_LATER, DeeplinkRoute.NO_ID, null, WEB + "/watchlater/");
+        assertRoute(Destination.FEED, DeeplinkRoute.NO_ID, null, "/feed/");
+        assertEquals("/feed", DeeplinkRouter.route("/feed/").path());
+        assertNull(DeeplinkRouter.route("/feed//"));
+    }
+
+    @Test
+    public void rejectsEmptySegments() {
+        assertNull(DeeplinkRouter.route(APP + "/users//albums"));
+        assertNull(DeeplinkRouter.route(APP + "/videos//12345"));
+        assertNull(DeeplinkRouter.route(APP + "/videos/"));
+        assertNull(DeeplinkRouter.route(WEB + "//12345"));
+    }
+
+    @Test
+    public void rejectsOverlongIds() {
+        assertRoute(Destination.VIDEO, 123456789012345678L, "123456789012345678", APP + "/videos/123456789012345678");
+        assertNull(DeeplinkRouter.route(APP + "/videos/1234567890123456789"));
+        assertNull(DeeplinkRouter.route(WEB + "/1234567890123456789"));
+        // A user may be any segment, but an overlong number isn't an id
+        assertRoute(Destination.USER, DeeplinkRoute.NO_ID, "1234567890123456789", APP + "/users/1234567890123456789");
+    }
+
+    @Test
+    public void rejectsUnknownLinks() {
+        assertNull(DeeplinkRouter.route(""));
+        assertNull(DeeplinkRouter.route("/"));
+        assertNull(DeeplinkRouter.route("/albums"));
+        assertNull(DeeplinkRouter.route("/ondemand/film/123"));
+        assertNull(DeeplinkRouter.route(APP + "/videos/abc"));
+        assertNull(DeeplinkRouter.route(WEB + "/feed"));
+        assertNull(DeeplinkRouter.route("https://example.com/12345"));
+        assertNull(DeeplinkRouter.route(APP + "/users/a b"));
+    }
+
+    @Test
+    public void resetsReusedRoute() {
+        DeeplinkRoute route = new DeeplinkRoute();
+        assertTrue(DeeplinkRouter.route(APP + "/videos/12345", route));
+        assertFalse(DeeplinkRouter.route(APP + "/nowhere", route));
+        assertNull(route.destination());
+        assertEquals(DeeplinkRoute.NO_ID, route.id());
+    }
+
+    private static void assertRoute(Destination destination, long id, String parameter, String link) {
+        DeeplinkRoute route = DeeplinkRouter.route(link);
+        assertEquals(link, destination, route == null ? null : route.destination());
+        assertEquals(link, id, route.id());
+        assertEquals(link, parameter, route.parameter());
+        assertEquals(destination, DeeplinkRouter.destination(link));
+    }
+}
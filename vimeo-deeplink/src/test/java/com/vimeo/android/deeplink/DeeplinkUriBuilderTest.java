@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vimeo.android.deeplink;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DeeplinkUriBuilderTest {
+
+    private static final String VIDEOS = VimeoDeeplink.VIMEO_VIDEO_URI_PREFIX;
+
+    @Test
+    public void buildsIdUris() {
+        assertEquals("vimeo://app.vimeo.com/videos/12345",
+                     DeeplinkUriBuilder.uri(VIDEOS, 12345, DeeplinkUriBuilder.NO_START_TIME));
+        assertEquals("vimeo://app.vimeo.com/videos/12345#t=30s", DeeplinkUriBuilder.uri(VIDEOS, 12345, 30));
+    }
+
+    @Test
+    public void translatesWebUrls() {
+        assertUri("vimeo://app.vimeo.com/videos/123", "https://vimeo.com/123");
+        assertUri("vimeo://app.vimeo.com/videos/123", "https://vimeo.com/channels/staffpicks/123");
+        assertUri("vimeo://app.vimeo.com/channels/staffpicks", "https://vimeo.com/channels/staffpicks");
+        assertUri("vimeo://app.vimeo.com/album/42", "https://vimeo.com/showcase/42");
+        assertUri("vimeo://app.vimeo.com/watchlater", "https://vimeo.com/watchlater");
+    }
+
+    @Test
+    public void dropsTrailingSlash() {
+        assertUri("vimeo://app.vimeo.com/videos/123", "https://vimeo.com/123/");
+        assertUri("vimeo://app.vimeo.com/watchlater", "https://vimeo.com/watchlater/");
+        assertUri("vimeo://app.vimeo.com/categories/animation", "https://vimeo.com/categories/animation/");
+    }
+
+    @Test
+    public void carriesOverQueryAndFragment() {
+        assertUri("vimeo://app.vimeo.com/videos/123?autoplay=1", "https://vimeo.com/123?autoplay=1");
+        assertUri("vimeo://app.vimeo.com/videos/123?autoplay=1", "https://vimeo.com/123/?autoplay=1");
+        assertUri("vimeo://app.vimeo.com/videos/123#t=30s", "https://vimeo.com/123/#t=30s");
+    }
+
+    @Test
+    public void albumListHasNoDeeplink() {
+        DeeplinkRoute route = DeeplinkRouter.route("/users/678/albums");
+        assertNull(DeeplinkUriBuilder.uri(route));
+    }
+
+    private static void assertUri(String expected, String link) {
+        DeeplinkRoute route = DeeplinkRouter.route(link);
+        assertEquals(link, expected, route == null ? null : DeeplinkUriBuilder.uri(route));
+        assertEquals(link, expected, VimeoDeeplink.toDeeplinkUri(link));
+    }
+}
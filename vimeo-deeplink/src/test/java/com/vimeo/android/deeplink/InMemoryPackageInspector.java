@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An in-memory {@link PackageInspector}, standing in for the {@link android.content.pm.PackageManager} on a
+ * plain JVM. Packages are installed with the activities that handle their deep links and launch them, and every
+ * call is counted so callers can check how often the "system" was asked. It is thread safe, so packages can be
+ * installed and removed while other threads look up the Vimeo app.
+ */
+final class InMemoryPackageInspector implements PackageInspector {
+
+    private final Map<String, VimeoAppState> mPackages = new HashMap<>();
+    private final Map<String, String> mDeeplinkActivities = new HashMap<>();
+    private final Map<String, String> mLaunchActivities = new HashMap<>();
+    @Nullable
+    private DeeplinkPathMatcher mPathMatcher;
+    private int mCalls;
+
+    /**
+     * @param packageName      the package to install, replacing any installed version
+     * @param versionCode      its version code
+     * @param deeplinkActivity the activity that handles every Vimeo deep link
+     * @param launchActivity   the launcher activity
+     * @return this inspector
+     */
+    @NonNull
+    synchronized InMemoryPackageInspector install(@NonNull final String packageName,
+                                                  final int versionCode,
+                                                  @NonNull final String deeplinkActivity,
+                                                  @NonNull final String launchActivity) {
+        mPackages.put(packageName, new VimeoAppState(packageName, true, versionCode, System.currentTimeMillis()));
+        mDeeplinkActivities.put(packageName, deeplinkActivity);
+        mLaunchActivities.put(packageName, launchActivity);
+        return this;
+    }
+
+    /**
+     * @param packageName the package to remove, if installed
+     * @return this inspector
+     */
+    @NonNull
+    synchronized InMemoryPackageInspector uninstall(@NonNull final String packageName) {
+        mPackages.remove(packageName);
+        mDeeplinkActivities.remove(packageName);
+        mLaunchActivities.remove(packageName);
+        return this;
+    }
+
+    /**
+     * Answer {@link #probe()} as if the Vimeo app declared intent filters with these data paths, as with
+     * {@link CapabilitySource#INTENT_FILTERS}
+     *
+     * @return this inspector
+     */
+    @NonNull
+    synchronized InMemoryPackageInspector declareDataPaths(@Nullable final DeeplinkPathMatcher pathMatcher) {
+        mPathMatcher = pathMatcher;
+        return this;
+    }
+
+    /**
+     * Declare intent filters for the path of every {@link Destination}, and for album ids, like a Vimeo app that
+     * handles all of them
+     *
+     * @return this inspector
+     */
+    @NonNull
+    InMemoryPackageInspector declareDestinationPaths() {
+        DeeplinkPathMatcher pathMatcher = new DeeplinkPathMatcher();
+        for (Destination destination : Destination.values()) {
+            String path = destination.path();
+            if (path != null) {
+                pathMatcher.add(path, destination.isParameterized()
+                                      ? DeeplinkPathMatcher.PATTERN_PREFIX
+                                      : DeeplinkPathMatcher.PATTERN_LITERAL);
+            }
+        }
+        pathMatcher.add(VimeoDeeplink.VIMEO_ALBUM_URI_PREFIX + "/.*", DeeplinkPathMatcher.PATTERN_SIMPLE_GLOB);
+        return declareDataPaths(pathMatcher);
+    }
+
+    /**
+     * @return how many questions this inspector was asked
+     */
+    synchronized int calls() {
+        return mCalls;
+    }
+
+    @NonNull
+    @Override
+    public synchronized VimeoAppState probe() {
+        VimeoAppState state = inspect(VimeoDeeplink.VIMEO_APP_PACKAGE);
+        return state.mInstalled && mPathMatcher != null ? state.withPathMatcher(mPathMatcher) : state;
+    }
+
+    @NonNull
+    @Override
+    public synchronized VimeoAppState inspect(@NonNull final String packageName) {
+        mCalls++;
+        VimeoAppState state = mPackages.get(packageName);
+        return state != null ? state : VimeoAppState.NOT_INSTALLED;
+    }
+
+    @Nullable
+    @Override
+    public synchronized String resolveActivity(@Nullable final String packageName, @NonNull final String uri) {
+        mCalls++;
+        if (!uri.startsWith(VimeoDeeplink.VIMEO_BASE_URI)) {
+            return null;
+        }
+        if (packageName != null) {
+            return mDeeplinkActivities.get(packageName);
+        }
+        return mDeeplinkActivities.isEmpty() ? null : mDeeplinkActivities.values().iterator().next();
+    }
+
+    @Nullable
+    @Override
+    public synchronized String resolveLaunchActivity(@NonNull final String packageName) {
+        mCalls++;
+        return mLaunchActivities.get(packageName);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2016 Vimeo (https://vimeo.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vimeo.android.deeplink;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The single-flight load of {@link VimeoAppStateCache} must not probe more than once per generation, or publish a
+ * state that was probed before an invalidation.
+ * <p>
+ * The Vimeo app is simulated with an {@link InMemoryPackageInspector}, whose call count is the number of probes.
+ */
+public class LoadStressTest {
+
+    private static final int THREADS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    private static final int ROUNDS = 500;
+    private static final int UPDATES = 20000;
+
+    /**
+     * An inspector is set, so lookups never use their context
+     */
+    private static final Context NO_CONTEXT = null;
+
+    private static volatile int sUpdatedVersion;
+
+    private InMemoryPackageInspector mInspector;
+    private ExecutorService mExecutor;
+
+    @Before
+    public void setUp() {
+        mInspector = new InMemoryPackageInspector()
+                .install(VimeoDeeplink.VIMEO_APP_PACKAGE, 1, "DeeplinkActivity", "LaunchActivity");
+        VimeoAppStateCache.setInspector(mInspector);
+        mExecutor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+        VimeoAppStateCache.setInspector(null);
+        VimeoAppStateCache.invalidate();
+    }
+
+    /**
+     * After each invalidation, start every thread on a miss at once; one probe must answer all of them
+     */
+    @Test
+    public void concurrentMissesProbeOnce() throws InterruptedException {
+        List<String> failures = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            // Every fifth round the app is removed, so that "not installed" is cached and probed once too
+            boolean installed = round % 5 != 4;
+            if (installed) {
+                mInspector.install(VimeoDeeplink.VIMEO_APP_PACKAGE, round, "DeeplinkActivity", "LaunchActivity");
+            } else {
+                mInspector.uninstall(VimeoDeeplink.VIMEO_APP_PACKAGE);
+            }
+            VimeoAppStateCache.invalidate();
+            int callsBefore = mInspector.calls();
+
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<VimeoAppState>> lookups = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                lookups.add(mExecutor.submit(new Callable<VimeoAppState>() {
+                    @Override
+                    public VimeoAppState call() throws InterruptedException {
+                        start.await();
+                        return VimeoAppStateCache.get(NO_CONTEXT);
+                    }
+                }));
+            }
+            start.countDown();
+            boolean stale = false;
+            for (Future<VimeoAppState> lookup : lookups) {
+                VimeoAppState state = get(lookup);
+                stale |= state.mInstalled != installed || (installed && state.mVersionCode != round);
+            }
+            int probes = mInspector.calls() - callsBefore;
+            if ((probes != 1 || stale) && failures.size() < 10) {
+                failures.add(String.format("round %d: %d probes for %d concurrent misses%s",
+                                           round, probes, THREADS, stale ? ", stale state returned" : ""));
+            }
+        }
+        assertTrue(failures.toString(), failures.isEmpty());
+    }
+
+    /**
+     * Update the app and invalidate, as {@link VimeoPackageMonitor} would, while the other threads look it up and
+     * invalidate at random; the cached state must never be older than the last completed update
+     */
+    @Test
+    public void invalidationNeverCachesStaleState() throws InterruptedException {
+        mInspector.install(VimeoDeeplink.VIMEO_APP_PACKAGE, 0, "DeeplinkActivity", "LaunchActivity");
+        VimeoAppStateCache.invalidate();
+        sUpdatedVersion = 0;
+        int generationBefore = VimeoAppStateCache.generation();
+        int callsBefore = mInspector.calls();
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> readers = new ArrayList<>(THREADS - 1);
+        for (int i = 0; i < THREADS - 1; i++) {
+            final boolean invalidates = i % 2 == 1;
+            readers.add(mExecutor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws InterruptedException {
+                    start.await();
+                    int stale = 0;
+                    int iteration = 0;
+                    while (!done.get()) {
+                        VimeoAppStateCache.get(NO_CONTEXT);
+                        if (invalidates && (++iteration & 255) == 0) {
+                            VimeoAppStateCache.invalidate();
+                        }
+                        // Read the version before the cache, so an update between the two reads can't count
+                        int updated = sUpdatedVersion;
+                        VimeoAppState cached = VimeoAppStateCache.peek();
+                        if (cached != null && cached.mVersionCode < updated) {
+                            stale++;
+                        }
+                    }
+                    return stale;
+                }
+            }));
+        }
+        start.countDown();
+        for (int version = 1; version <= UPDATES; version++) {
+            mInspector.install(VimeoDeeplink.VIMEO_APP_PACKAGE, version, "DeeplinkActivity", "LaunchActivity");
+            VimeoAppStateCache.invalidate();
+            sUpdatedVersion = version;
+            if ((version & 15) == 0) {
+                Thread.yield();
+            }
+        }
+        done.set(true);
+        int stale = 0;
+        for (Future<Integer> reader : readers) {
+            stale += get(reader);
+        }
+        VimeoAppState cached = VimeoAppStateCache.get(NO_CONTEXT);
+        if (cached.mVersionCode != UPDATES) {
+            stale++;
+        }
+
+        int generations = VimeoAppStateCache.generation() - generationBefore;
+        int probes = mInspector.calls() - callsBefore;
+        assertTrue(String.format("%d probes over %d generations", probes, generations), probes <= generations);
+        assertEquals("times a stale state was cached", 0, stale);
+    }
+
+    @NonNull
+    private static <T> T get(@NonNull final Future<T> future) throws InterruptedException {
+        try {
+            return future.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("A lookup didn't finish, the single-flight load may be deadlocked", e);
+        }
+    }
+}